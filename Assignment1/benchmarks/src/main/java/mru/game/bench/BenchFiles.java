@@ -0,0 +1,32 @@
+package mru.game.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/*
+  scratch folders for benchmarks that read or write player files,
+  so nothing ever touches the real res/ folder
+*/
+final class BenchFiles {
+
+	private BenchFiles() {
+	}
+
+	static String tempResDir() throws IOException {
+		return Files.createTempDirectory("casino-bench").toString();
+	}
+
+	// deletes the folder and everything in it (shard benchmarks make a sub folder)
+	static void delete(String dir) {
+		File d = new File(dir);
+		File[] files = d.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				if (f.isDirectory()) delete(f.getPath());
+				else f.delete();
+			}
+		}
+		d.delete();
+	}
+}
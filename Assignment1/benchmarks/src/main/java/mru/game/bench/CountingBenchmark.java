@@ -0,0 +1,72 @@
+package mru.game.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BasicStrategy;
+import mru.game.controller.CountAnalysis;
+import mru.game.controller.CountResult;
+import mru.game.controller.CountingShoe;
+import mru.game.controller.CountingSystem;
+import mru.game.controller.Shoe;
+import mru.game.controller.TableRules;
+
+/*
+  what keeping the count costs: one draw from a plain six-deck Shoe against a CountingShoe
+  counting Hi-Lo only and all six systems, and a whole count analysis of 1000 shoes
+  (all systems, every rule) on the common fork-join pool
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CountingBenchmark {
+
+	private Shoe plain;
+	private CountingShoe hiLo;
+	private CountingShoe all;
+	private CountAnalysis analysis;
+
+	@Setup
+	public void setup() {
+		plain = new Shoe(6, 1.0, 1L);
+		hiLo = new CountingShoe(6, 1.0, new SplittableRandom(1L), CountingSystem.parse("hilo"));
+		all = new CountingShoe(6, 1.0, new SplittableRandom(1L), CountingSystem.parse("all"));
+		analysis = new CountAnalysis(BasicStrategy.compute(6), TableRules.STANDARD, 6, 0.75, 1L, CountingSystem.parse("all"));
+	}
+
+	@Benchmark
+	public byte plainDraw() {
+		return plain.draw();
+	}
+
+	@Benchmark
+	public byte hiLoDraw() {
+		return hiLo.draw();
+	}
+
+	@Benchmark
+	public byte allSystemsDraw() {
+		return all.draw();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public CountResult analysis1000Shoes() {
+		return analysis.run(1000, ForkJoinPool.commonPool());
+	}
+}
@@ -0,0 +1,73 @@
+package mru.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BlackjackGame;
+import mru.game.controller.Card;
+import mru.game.controller.CardDeck;
+import mru.game.controller.Shoe;
+
+/*
+  deck building, shuffling and drawing:
+  - CardDeck construction (52 Card objects + Collections.shuffle)
+  - the original drawFromDeck on a CardDeck (every 52nd draw pays the Math.random refill)
+  - Shoe shuffle and draw for comparison
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+	private CardDeck deck;
+	private Shoe oneDeck;
+	private Shoe sixDecks;
+
+	@Setup
+	public void setup() {
+		deck = new CardDeck();
+		oneDeck = new Shoe(1, 1.0, 1L);
+		sixDecks = new Shoe(6, 0.75, 1L);
+	}
+
+	@Benchmark
+	public CardDeck cardDeckConstructAndShuffle() {
+		return new CardDeck();
+	}
+
+	// one draw; the refill + shuffle happens inside every 52 calls, so it's averaged in
+	@Benchmark
+	public Card cardDeckDrawWithRefill() {
+		return BlackjackGame.drawFrom(deck);
+	}
+
+	@Benchmark
+	public byte shoeDraw() {
+		return oneDeck.draw();
+	}
+
+	@Benchmark
+	public Shoe shoeShuffleOneDeck() {
+		oneDeck.shuffle();
+		return oneDeck;
+	}
+
+	@Benchmark
+	public Shoe shoeShuffleSixDecks() {
+		sixDecks.shuffle();
+		return sixDecks;
+	}
+}
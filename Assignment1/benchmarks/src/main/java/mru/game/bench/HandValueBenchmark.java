@@ -0,0 +1,88 @@
+package mru.game.bench;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BlackjackGame;
+import mru.game.controller.Card;
+import mru.game.controller.Cards;
+import mru.game.controller.Hand;
+
+/*
+  scores random hands card by card, the way a round does (score after every card):
+  - BlackjackGame.handValue on an ArrayList<Card> (rescans the hand each time)
+  - Hand with its running total
+  numbers are per hand; add -prof gc to see allocations per hand.
+  setup checks both give the same scores
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandValueBenchmark {
+
+	private static final int HANDS = 1024;
+
+	private Card[][] cardHands = new Card[HANDS][];
+	private byte[][] codeHands = new byte[HANDS][];
+	private Hand hand = new Hand();
+
+	@Setup
+	public void setup() {
+		Random rnd = new Random(7);
+		for (int h = 0; h < HANDS; h++) {
+			int n = 2 + rnd.nextInt(6); // 2..7 cards
+			cardHands[h] = new Card[n];
+			codeHands[h] = new byte[n];
+			for (int i = 0; i < n; i++) {
+				byte code = Cards.encode(1 + rnd.nextInt(13), rnd.nextInt(4));
+				codeHands[h][i] = code;
+				cardHands[h][i] = Cards.toCard(code);
+			}
+		}
+		if (arrayListHandValue() != handRunningTotal()) throw new IllegalStateException("scores differ");
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HANDS)
+	public long arrayListHandValue() {
+		long sum = 0;
+		for (int h = 0; h < HANDS; h++) {
+			ArrayList<Card> list = new ArrayList<Card>();
+			for (int i = 0; i < cardHands[h].length; i++) {
+				list.add(cardHands[h][i]);
+				sum += BlackjackGame.handValue(list);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(HANDS)
+	public long handRunningTotal() {
+		long sum = 0;
+		for (int h = 0; h < HANDS; h++) {
+			hand.clear();
+			for (int i = 0; i < codeHands[h].length; i++) {
+				hand.add(codeHands[h][i]);
+				sum += hand.value();
+			}
+		}
+		return sum;
+	}
+}
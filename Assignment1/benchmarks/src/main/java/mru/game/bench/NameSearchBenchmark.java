@@ -0,0 +1,101 @@
+package mru.game.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.model.NameIndex;
+import mru.game.model.Player;
+
+/*
+  NameIndex prefix pages and "did you mean" lookups at 1K / 100K / 1M players,
+  against a linear scan of the player list doing the same thing (the baseline).
+  names are made from random syllables so the trie has realistic branching
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class NameSearchBenchmark {
+
+	private static final String[] SYLLABLES = { "al", "be", "cor", "da", "el", "fin", "ga", "hal", "is",
+			"jo", "ka", "li", "mar", "no", "os", "pe", "qui", "ra", "sam", "ta", "ul", "vi", "wen", "xa",
+			"yo", "zed" };
+
+	@Param({ "1000", "100000", "1000000" })
+	public int players;
+
+	private NameIndex index = new NameIndex();
+	private ArrayList<Player> list = new ArrayList<Player>();
+	private String[] prefixes = new String[1024]; // two or three letters, lower case
+	private String[] typos = new String[1024];    // existing names with one letter changed
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		SplittableRandom rng = new SplittableRandom(42);
+		for (int i = 0; i < players; i++) {
+			StringBuilder sb = new StringBuilder();
+			int parts = 2 + rng.nextInt(3);
+			for (int k = 0; k < parts; k++) sb.append(SYLLABLES[rng.nextInt(SYLLABLES.length)]);
+			sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+			sb.append(i % 1000); // keeps most names unique
+			Player p = new Player(sb.toString(), 100, 0);
+			index.add(p);
+			list.add(p);
+		}
+		for (int i = 0; i < prefixes.length; i++) {
+			String name = list.get(rng.nextInt(list.size())).getName().toLowerCase();
+			prefixes[i] = name.substring(0, Math.min(name.length(), 2 + rng.nextInt(2)));
+
+			char[] c = list.get(rng.nextInt(list.size())).getName().toCharArray();
+			c[1 + rng.nextInt(c.length - 1)] = 'q';
+			typos[i] = new String(c);
+		}
+	}
+
+	// first page (10 names) for a prefix
+	@Benchmark
+	public List<Player> prefixFirstPage() {
+		return index.prefix(prefixes[next++ & 1023], 0, 10);
+	}
+
+	// a page 100 pages in (subtree counts let it skip the first 1000 matches)
+	@Benchmark
+	public List<Player> prefixDeepPage() {
+		return index.prefix(prefixes[next++ & 1023], 1000, 10);
+	}
+
+	@Benchmark
+	public List<Player> prefixLinearScan() {
+		String prefix = prefixes[next++ & 1023];
+		ArrayList<Player> out = new ArrayList<Player>();
+		for (int i = 0; i < list.size() && out.size() < 10; i++) {
+			Player p = list.get(i);
+			if (p.getName().regionMatches(true, 0, prefix, 0, prefix.length())) out.add(p);
+		}
+		return out;
+	}
+
+	// "did you mean" with up to 2 typos
+	@Benchmark
+	public List<Player> fuzzy() {
+		return index.fuzzy(typos[next++ & 1023], 2, 5);
+	}
+}
@@ -0,0 +1,156 @@
+package mru.game.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.GameManager;
+import mru.game.controller.PlayerFileLoader;
+import mru.game.model.Player;
+
+/*
+  loadPlayers / savePlayers on a generated player file (in a scratch folder), plus the
+  original Scanner + split(",") loader and PlayerFileLoader on its own, on one chunk and in parallel.
+  setup also checks all the loaders give the same players.
+  time is per full load / save; divide the player count by it for rows/sec
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	public int players;
+
+	private String dir;
+	private String dbPath;
+	private GameManager gm;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		dir = BenchFiles.tempResDir();
+		dbPath = dir + "/CasinoInfo.txt";
+		writeFile(new File(dbPath), players);
+
+		gm = new GameManager(dir);
+		gm.loadPlayers();
+
+		ArrayList<Player> expected = scannerLoad(new File(dbPath));
+		if (!same(expected, new PlayerFileLoader(1).load(dbPath)) || !same(expected, parallelLoader().load(dbPath))) {
+			throw new IllegalStateException("PlayerFileLoader and the Scanner loader disagree");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchFiles.delete(dir);
+	}
+
+	@Benchmark
+	public GameManager loadPlayers() {
+		gm.loadPlayers();
+		return gm;
+	}
+
+	@Benchmark
+	public ArrayList<Player> loadPlayersScannerBaseline() throws IOException {
+		return scannerLoad(new File(dbPath));
+	}
+
+	@Benchmark
+	public ArrayList<Player> streamLoaderOneChunk() throws IOException {
+		return new PlayerFileLoader(1).load(dbPath);
+	}
+
+	@Benchmark
+	public ArrayList<Player> streamLoaderParallel() throws IOException {
+		return parallelLoader().load(dbPath);
+	}
+
+	@Benchmark
+	public GameManager savePlayers() {
+		gm.savePlayers();
+		return gm;
+	}
+
+	private static PlayerFileLoader parallelLoader() {
+		return new PlayerFileLoader(Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	// random players, with the odd blank or broken line mixed in
+	private static void writeFile(File f, int rows) throws IOException {
+		Random rnd = new Random(42);
+		PrintWriter out = new PrintWriter(new FileWriter(f));
+		for (int i = 0; i < rows; i++) {
+			int k = rnd.nextInt(100);
+			if (k == 0) out.println();
+			else if (k == 1) out.println("broken line " + i);
+			else if (k == 2) out.println(" Spacey" + i + " , 12x , 3 ");
+			else if (k == 3) out.print("Cr" + i + "," + rnd.nextInt(5000) + ",4\r\n");
+			else out.println("Player" + i + "," + rnd.nextInt(5000) + "," + rnd.nextInt(200));
+		}
+		out.close();
+	}
+
+	// copy of the original GameManager.loadPlayers
+	private static ArrayList<Player> scannerLoad(File f) throws IOException {
+		ArrayList<Player> players = new ArrayList<Player>();
+		Scanner sc = new Scanner(f, "UTF-8");
+		while (sc.hasNextLine()) {
+			String line = sc.nextLine().trim();
+			if (line.length() == 0) continue;
+
+			String[] parts = line.split(",");
+			if (parts.length == 3) {
+				String name = parts[0].trim();
+				int bal = safeInt(parts[1].trim(), 0);
+				int wins = safeInt(parts[2].trim(), 0);
+				players.add(new Player(name, bal, wins));
+			}
+		}
+		sc.close();
+		return players;
+	}
+
+	private static int safeInt(String s, int def) {
+		try {
+			return Integer.parseInt(s);
+		} catch (NumberFormatException e) {
+			return def;
+		}
+	}
+
+	private static boolean same(ArrayList<Player> a, ArrayList<Player> b) {
+		if (a.size() != b.size()) return false;
+		for (int i = 0; i < a.size(); i++) {
+			Player x = a.get(i);
+			Player y = b.get(i);
+			if (!x.getName().equals(y.getName()) || x.getBalance() != y.getBalance() || x.getWins() != y.getWins()) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,129 @@
+package mru.game.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.GameManager;
+import mru.game.controller.PlayerLease;
+import mru.game.model.Player;
+
+/*
+  one player's balance changed by 1 / 4 / 16 threads at once:
+  - settle: the atomic update the rounds use (balance and win in one compare-and-set)
+  - legacy: the old read, add, write (getBalance / setBalance), which can lose updates
+  every call adds 1, and after each iteration the balance is checked against the number of calls:
+  settle must come out exact (the run fails if not), legacy prints how many updates it lost.
+  checkout: GameManager.checkout + close of a player nobody else holds (the per-session overhead)
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerContentionBenchmark {
+
+	private Player shared;
+	private LongAdder calls;
+	private String dir;
+	private GameManager gm;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = BenchFiles.tempResDir();
+		gm = new GameManager(dir);
+		gm.getOrCreatePlayer("Leased");
+	}
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		shared = new Player("Shared", 0, 0);
+		calls = new LongAdder();
+	}
+
+	@TearDown(Level.Iteration)
+	public void check() {
+		long lost = calls.sum() - shared.getBalance();
+		if (lost == 0) return;
+		if (shared.getWins() == 0) {
+			// legacy: lost updates are what this one is here to show
+			System.out.println("[info] legacy lost " + lost + " of " + calls.sum() + " updates");
+		} else {
+			throw new IllegalStateException("settle lost " + lost + " of " + calls.sum() + " updates");
+		}
+	}
+
+	@TearDown
+	public void cleanup() {
+		BenchFiles.delete(dir);
+	}
+
+	private void settle() {
+		shared.settle(1, true);
+		calls.increment();
+	}
+
+	private void legacy() {
+		shared.setBalance(shared.getBalance() + 1);
+		calls.increment();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void settle01() {
+		settle();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void legacy01() {
+		legacy();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void settle04() {
+		settle();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void legacy04() {
+		legacy();
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void settle16() {
+		settle();
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void legacy16() {
+		legacy();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public PlayerLease checkout() {
+		PlayerLease lease = gm.checkout("Leased");
+		lease.close();
+		return lease;
+	}
+}
@@ -0,0 +1,105 @@
+package mru.game.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.GameManager;
+import mru.game.controller.ShardedPlayerRepository;
+import mru.game.model.Player;
+
+/*
+  GameManager.findByName and getTopPlayers at 1K / 100K / 1M players,
+  on one repository (shards = 0) or split into 16 shards (top players then merges per-shard results),
+  plus the original linear equalsIgnoreCase scan as the baseline.
+  setup checks that the index and the scan find the same player for every looked-up name
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class PlayerLookupBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	public int players;
+
+	@Param({ "0", "16" })
+	public int shards;
+
+	private String dir;
+	private GameManager gm;
+	private ArrayList<Player> list = new ArrayList<Player>(); // same players, for the scan baseline
+	private String[] names = new String[1024];              // upper-cased, to exercise case folding
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		dir = BenchFiles.tempResDir();
+		if (shards > 0) {
+			// empty shard files make GameManager pick the sharded repository
+			File shardDir = new File(dir, "shards");
+			shardDir.mkdirs();
+			for (int i = 0; i < shards; i++) {
+				new File(shardDir, ShardedPlayerRepository.fileName(i)).createNewFile();
+			}
+		}
+		gm = new GameManager(dir);
+		for (int i = 0; i < players; i++) {
+			Player p = gm.getOrCreatePlayer("Player" + i);
+			p.setWins(i % 500);
+			list.add(p);
+		}
+		for (int i = 0; i < names.length; i++) {
+			names[i] = ("player" + (int) ((long) i * 7919 % players)).toUpperCase();
+			if (gm.findByName(names[i]) == null || gm.findByName(names[i]) != scan(list, names[i])) {
+				throw new IllegalStateException("index and linear scan disagree on " + names[i]);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchFiles.delete(dir);
+	}
+
+	@Benchmark
+	public Player findByName() {
+		return gm.findByName(names[next++ & 1023]);
+	}
+
+	@Benchmark
+	public Player findByNameLinearScan() {
+		return scan(list, names[next++ & 1023]);
+	}
+
+	@Benchmark
+	public ArrayList<Player> getTopPlayers() {
+		return gm.getTopPlayers();
+	}
+
+	// copy of the original GameManager.findByName
+	private static Player scan(List<Player> players, String name) {
+		for (int i = 0; i < players.size(); i++) {
+			Player p = players.get(i);
+			if (p.getName().equalsIgnoreCase(name)) return p;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,135 @@
+package mru.game.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.Cards;
+import mru.game.controller.Hand;
+import mru.game.model.Player;
+import mru.game.view.TableRenderer;
+
+/*
+  one board frame / one top players frame, drawn the old way (println per line, padding with
+  s += " ") and with TableRenderer, into a stream that only counts bytes.
+  the "bytes" counter gives bytes/sec; run with -prof gc for allocations per frame
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+	// counts what was written; reported by JMH next to the frames/sec score
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Output extends OutputStream {
+		public long bytes;
+		PrintStream stream = new PrintStream(this, false);
+
+		public void write(int b) {
+			bytes++;
+		}
+
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+		}
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			bytes = 0;
+		}
+	}
+
+	private Hand player = new Hand();
+	private Hand dealer = new Hand();
+	private ArrayList<Player> tops = new ArrayList<Player>();
+	private TableRenderer renderer = new TableRenderer();
+
+	@Setup
+	public void setup() {
+		player.add(Cards.encode(10, 0));
+		player.add(Cards.encode(3, 1));
+		player.add(Cards.encode(12, 3));
+		dealer.add(Cards.encode(1, 2));
+		dealer.add(Cards.encode(6, 0));
+		for (int i = 0; i < 5; i++) {
+			tops.add(new Player("Player" + i, 100 * i, 42));
+		}
+	}
+
+	@Benchmark
+	public void boardPrintln(Output o) {
+		legacyBoard(o.stream, player, dealer, false);
+		o.stream.flush();
+	}
+
+	@Benchmark
+	public void boardRenderer(Output o) {
+		renderer.board(o.stream, player, dealer, false);
+	}
+
+	@Benchmark
+	public void topPlayersPrintln(Output o) {
+		legacyTopPlayers(o.stream, tops);
+		o.stream.flush();
+	}
+
+	@Benchmark
+	public void topPlayersRenderer(Output o) {
+		renderer.topPlayers(o.stream, tops);
+	}
+
+	// copy of the original BlackjackGame.printBoard
+	private static void legacyBoard(PrintStream out, Hand player, Hand dealer, boolean hideDealerHole) {
+		out.println("               -- BLACK JACK --");
+		out.println("+======================+=====================+");
+		out.println("|| PLAYER              | DEALER             ||");
+		out.println("+======================+=====================+");
+		int rows = Math.max(player.size(), dealer.size());
+		for (int i = 0; i < rows; i++) {
+			String left = "";
+			String right = "";
+			if (i < player.size()) left = Cards.toCard(player.get(i)).toString();
+			if (i < dealer.size() && !(hideDealerHole && i >= 1)) right = Cards.toCard(dealer.get(i)).toString();
+			while (left.length() < 20) left += " ";
+			while (right.length() < 19) right += " ";
+			out.println("| " + left + "|| " + right + " |");
+			out.println("+----------------------+---------------------+");
+		}
+		out.println();
+	}
+
+	// copy of the original TOP PLAYERS table in GameManager.searchFlow
+	private static void legacyTopPlayers(PrintStream out, ArrayList<Player> tops) {
+		out.println("              - TOP PLAYERS -");
+		out.println("+====================+=================+");
+		out.println("| NAME               | # WINS          |");
+		out.println("+====================+=================+");
+		for (int i = 0; i < tops.size(); i++) {
+			Player tp = tops.get(i);
+			String nameCol = tp.getName();
+			String winsCol = String.valueOf(tp.getWins());
+			while (nameCol.length() < 18) nameCol += " ";
+			while (winsCol.length() < 7) winsCol += " ";
+			out.println("| " + nameCol + " | " + winsCol + "         |");
+			out.println("+--------------------------------------+");
+		}
+	}
+}
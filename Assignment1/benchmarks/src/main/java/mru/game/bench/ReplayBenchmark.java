@@ -0,0 +1,78 @@
+package mru.game.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BasicStrategy;
+import mru.game.controller.BlackjackGame;
+import mru.game.controller.RoundLog;
+import mru.game.controller.RoundReplayer;
+import mru.game.controller.Shoe;
+import mru.game.model.Player;
+import mru.game.view.TableRenderer;
+
+/*
+  replays a round log as a fixed workload (rounds/sec = rounds / score).
+  setup records the log through the real BlackjackGame.playRound (bot seat, seeded shoe,
+  board output thrown away), so the workload is the same on every run
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+
+	@Param({ "20000" })
+	public int rounds;
+
+	private String dir;
+	private String log;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = BenchFiles.tempResDir();
+		log = dir + "/rounds.log";
+
+		RoundLog out = new RoundLog(log);
+		BlackjackGame game = new BlackjackGame(new Shoe(6, 0.75, 42L), new PrintStream(OutputStream.nullOutputStream()),
+				new TableRenderer(StandardCharsets.UTF_8));
+		game.setStrategy(BasicStrategy.compute(6));
+		game.setRoundLog(out);
+		Player p = new Player("bench", Integer.MAX_VALUE / 2, 0);
+		for (int i = 0; i < rounds; i++) {
+			game.playRound(null, 10, p);
+		}
+		out.close();
+
+		if (!new RoundReplayer().replay(log)) throw new IllegalStateException("recorded log doesn't replay");
+	}
+
+	@TearDown
+	public void tearDown() {
+		BenchFiles.delete(dir);
+	}
+
+	@Benchmark
+	public long replay() throws Exception {
+		RoundReplayer r = new RoundReplayer();
+		r.replay(log);
+		return r.getMismatches();
+	}
+}
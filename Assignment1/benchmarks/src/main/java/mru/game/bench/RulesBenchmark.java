@@ -0,0 +1,53 @@
+package mru.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BasicStrategy;
+import mru.game.controller.PlayerStrategy;
+import mru.game.controller.Shoe;
+import mru.game.controller.TableRound;
+import mru.game.controller.TableRules;
+
+/*
+  cost of each table rule: one basic strategy hand (one seat, 6 decks) per call, with no rules
+  (classic) and with each rule switched on by itself, then all of them together.
+  run with -prof gc to check a round still allocates nothing with the rules on
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RulesBenchmark {
+
+	@Param({ "classic", "double", "resplit", "insurance", "3to2", "all" })
+	public String rules;
+
+	private TableRound table;
+	private PlayerStrategy[] strategies;
+
+	@Setup
+	public void setup() {
+		table = new TableRound(new Shoe(6, 0.75, 42L), TableRules.parse(rules));
+		strategies = new PlayerStrategy[] { BasicStrategy.compute(6) };
+	}
+
+	@Benchmark
+	public int hand() {
+		table.play(strategies, 1);
+		return table.result(0);
+	}
+}
@@ -0,0 +1,99 @@
+package mru.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.ConcurrentShoe;
+import mru.game.controller.Shoe;
+
+/*
+  one shared six-deck shoe dealt from by 1 / 4 / 16 / 64 threads at once:
+  ConcurrentShoe (atomic index claim, reshuffle by epoch swap) against a plain Shoe behind a lock.
+  time per draw, as seen by each thread (so it grows with the thread count when draws queue up).
+  setup first runs a short ShoeStress: a shoe that deals a card twice isn't worth timing
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShoeContentionBenchmark {
+
+	private ConcurrentShoe concurrent;
+	private Shoe locked;
+
+	@Setup
+	public void setup() throws InterruptedException {
+		if (ShoeStress.run(16, 200000) != 0) throw new IllegalStateException("ConcurrentShoe dealt wrong card counts");
+		concurrent = new ConcurrentShoe(6, 1.0, 1L);
+		locked = new Shoe(6, 1.0, 1L);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public byte concurrent01() {
+		return concurrent.draw();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public byte locked01() {
+		synchronized (locked) {
+			return locked.draw();
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public byte concurrent04() {
+		return concurrent.draw();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public byte locked04() {
+		synchronized (locked) {
+			return locked.draw();
+		}
+	}
+
+	@Benchmark
+	@Threads(16)
+	public byte concurrent16() {
+		return concurrent.draw();
+	}
+
+	@Benchmark
+	@Threads(16)
+	public byte locked16() {
+		synchronized (locked) {
+			return locked.draw();
+		}
+	}
+
+	@Benchmark
+	@Threads(64)
+	public byte concurrent64() {
+		return concurrent.draw();
+	}
+
+	@Benchmark
+	@Threads(64)
+	public byte locked64() {
+		synchronized (locked) {
+			return locked.draw();
+		}
+	}
+}
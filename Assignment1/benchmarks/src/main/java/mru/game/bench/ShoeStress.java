@@ -0,0 +1,85 @@
+package mru.game.bench;
+
+import java.util.concurrent.CountDownLatch;
+
+import mru.game.controller.Cards;
+import mru.game.controller.ConcurrentShoe;
+
+/*
+  stress check for ConcurrentShoe.
+  a number of threads deal from one single-deck shoe as fast as they can (calling startRound
+  every few cards like a table would), each counting the cards it got.
+  afterwards every shoe but the last one has been dealt out completely, so each of the 52 cards
+  must have come out exactly once per finished shoe, plus at most once from the last one.
+  a card dealt twice or lost in a reshuffle shows up as a wrong count.
+  ShoeContentionBenchmark runs a short one before it measures anything (and fails if it finds a problem).
+  on its own: java -cp benchmarks/target/benchmarks.jar mru.game.bench.ShoeStress [threads] [draws per thread]
+*/
+public class ShoeStress {
+
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		long draws = args.length > 1 ? Long.parseLong(args[1]) : 2000000;
+		if (run(threads, draws) != 0) System.exit(1);
+	}
+
+	// deals threads x draws cards from one shoe and checks the counts; returns the number of problems found
+	public static int run(int threads, long draws) throws InterruptedException {
+		ConcurrentShoe shoe = new ConcurrentShoe(1, 1.0, 42L);
+		long[][] counts = new long[threads][64]; // per thread, by card code
+		CountDownLatch ready = new CountDownLatch(threads);
+		CountDownLatch go = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+
+		for (int t = 0; t < threads; t++) {
+			final long[] mine = counts[t];
+			Thread th = new Thread(() -> {
+				ready.countDown();
+				try {
+					go.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (long i = 0; i < draws; i++) {
+					if (i % 5 == 0) shoe.startRound();
+					mine[shoe.draw()]++;
+				}
+				done.countDown();
+			});
+			th.setDaemon(true);
+			th.start();
+		}
+		ready.await();
+		long start = System.nanoTime();
+		go.countDown();
+		done.await();
+		long elapsed = System.nanoTime() - start;
+
+		// add up the threads and check every card
+		long full = shoe.getShuffles() - 1; // shoes dealt out completely
+		long total = 0;
+		int extra = 0;
+		int bad = 0;
+		for (int s = 0; s < 4; s++) {
+			for (int r = 1; r <= 13; r++) {
+				byte code = Cards.encode(r, s);
+				long n = 0;
+				for (int t = 0; t < threads; t++) n += counts[t][code];
+				total += n;
+				if (n == full + 1) {
+					extra++;
+				} else if (n != full) {
+					bad++;
+					if (bad <= 5) System.out.println("[error] " + Cards.label(code) + " dealt " + n + " times, expected " + full);
+				}
+			}
+		}
+		if (extra != 52 - shoe.remaining()) bad++;
+		if (total != (long) threads * draws) bad++;
+
+		System.out.printf("threads: %d  draws: %d  shoes: %d  time: %.2fs  draws/sec: %.0f%n",
+				threads, total, shoe.getShuffles(), elapsed / 1e9, total / (elapsed / 1e9));
+		System.out.println(bad == 0 ? "ok: every card dealt exactly once per shoe" : "FAILED: " + bad + " problem(s)");
+		return bad;
+	}
+}
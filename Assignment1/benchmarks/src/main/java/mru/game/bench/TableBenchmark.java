@@ -0,0 +1,81 @@
+package mru.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BasicStrategy;
+import mru.game.controller.HeadlessRound;
+import mru.game.controller.PlayerStrategy;
+import mru.game.controller.Shoe;
+import mru.game.controller.TableRound;
+
+/*
+  hands/sec on one thread: HeadlessRound (one hand, one dealer hand per round) against
+  TableRound with 1 / 2 / 4 / 7 seats (one dealer hand shared by all the seats).
+  the score is rounds/sec, the "hands" counter is hands/sec (rounds x seats)
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableBenchmark {
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Hands {
+		public long hands;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			hands = 0;
+		}
+	}
+
+	@Param({ "1", "2", "4", "7" })
+	public int seats;
+
+	private HeadlessRound single;
+	private TableRound table;
+	private PlayerStrategy strategy;
+	private PlayerStrategy[] strategies;
+
+	@Setup
+	public void setup() {
+		strategy = BasicStrategy.compute(6);
+		single = new HeadlessRound(new Shoe(6, 0.75, 42L));
+		table = new TableRound(new Shoe(6, 0.75, 42L));
+		strategies = new PlayerStrategy[seats];
+		for (int i = 0; i < seats; i++) strategies[i] = strategy;
+	}
+
+	// the one-seat engine, played seats times so it deals the same number of hands per call
+	@Benchmark
+	public int headlessRounds(Hands h) {
+		int sum = 0;
+		for (int i = 0; i < seats; i++) sum += single.play(strategy);
+		h.hands += seats;
+		return sum;
+	}
+
+	@Benchmark
+	public int tableRound(Hands h) {
+		table.play(strategies, seats);
+		h.hands += seats;
+		return table.outcome(0);
+	}
+}
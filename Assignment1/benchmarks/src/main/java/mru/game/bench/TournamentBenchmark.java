@@ -0,0 +1,60 @@
+package mru.game.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mru.game.controller.BasicStrategy;
+import mru.game.controller.SimulationResult;
+import mru.game.controller.Tournament;
+import mru.game.model.Player;
+
+/*
+  one full tournament (10K players x 20 rounds, basic strategy, 6 decks) on the common fork-join pool.
+  same seed every time, so every invocation plays exactly the same hands.
+  hands/sec = 200K / score
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TournamentBenchmark {
+
+	@Param({ "10000" })
+	public int players;
+
+	@Param({ "20" })
+	public int rounds;
+
+	private ArrayList<Player> list = new ArrayList<Player>();
+	private BasicStrategy strategy;
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < players; i++) {
+			list.add(new Player("Player" + i, 100 + i % 900, i % 50));
+		}
+		strategy = BasicStrategy.compute(6);
+	}
+
+	@Benchmark
+	public SimulationResult tournament() {
+		// the players aren't changed (no apply), so every invocation starts from the same values
+		Tournament t = new Tournament(rounds, 5, strategy, 6, 0.75, 42);
+		return t.run(list, ForkJoinPool.commonPool());
+	}
+}
@@ -1,16 +1,157 @@
 package mru.game.application;
 
 // creates the GameManager object and then starts the application
+// (or runs a headless simulation when started with: sim <hands> [standOn|basic] [decks] [penetration] [seed] [seats] [rules],
+//  or prints the basic strategy chart with: strategy [decks],
+//  or prints the exact dealer outcome odds per up card with: odds [decks],
+//  or converts the player file to the binary format with: convert,
+//  or splits the player file into shard files with: shard <n>,
+//  or re-plays a round log and checks every result with: replay [file],
+//  or plays every stored player through an offline tournament with:
+//     tournament <rounds> [bet] [standOn|basic] [decks] [seed] [threads],
+//  or seats several players (and bots) at one table with: table <bots> <name> [name ...],
+//  or buckets the player's edge by true count for several counting systems with:
+//     count <shoes> [decks] [penetration] [seed] [systems] [rules] [threads],
+//  or runs the multi-session TCP server with: server [port])
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import mru.game.controller.BasicStrategy;
+import mru.game.controller.CountAnalysis;
+import mru.game.controller.CountResult;
+import mru.game.controller.CountingSystem;
+import mru.game.controller.DealerOdds;
 import mru.game.controller.GameManager;
+import mru.game.controller.PlayerStrategy;
+import mru.game.controller.RoundReplayer;
+import mru.game.controller.SimulationResult;
+import mru.game.controller.Simulator;
+import mru.game.controller.TableRound;
+import mru.game.controller.TableRules;
+import mru.game.controller.ThresholdStrategy;
 
 public class AppDriver {
 
 	public static void main(String[] args) {
 
+		// simulation mode: no menus, just play lots of hands and print the stats
+		if (args.length > 0 && args[0].equalsIgnoreCase("sim")) {
+			long hands = args.length > 1 ? Long.parseLong(args[1]) : 1000000;
+			String play = args.length > 2 ? args[2] : "17";
+			int decks = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+			double penetration = args.length > 4 ? Double.parseDouble(args[4]) : 1.0;
+			long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+			int seats = args.length > 6 ? Math.max(1, Math.min(TableRound.MAX_SEATS, Integer.parseInt(args[6]))) : 1;
+			TableRules rules = TableRules.parse(args.length > 7 ? args[7] : "classic"); // e.g. all, or das,resplit,3to2
+
+			Simulator sim = new Simulator(decks, penetration, seed);
+			PlayerStrategy strategy = play.equalsIgnoreCase("basic")
+					? BasicStrategy.load(BasicStrategy.cacheFile("res", decks), decks)
+					: new ThresholdStrategy(Integer.parseInt(play));
+			SimulationResult result = sim.run(hands, strategy, seats, rules);
+			System.out.println(result);
+			return;
+		}
+
+		// count mode: whole shoes dealt on a fork-join pool, every hand bucketed by the true count it was bet at
+		if (args.length > 0 && args[0].equalsIgnoreCase("count")) {
+			long shoes = args.length > 1 ? Long.parseLong(args[1]) : 10000;
+			int decks = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+			double penetration = args.length > 3 ? Double.parseDouble(args[3]) : 0.75;
+			long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+			CountingSystem[] systems = CountingSystem.parse(args.length > 5 ? args[5] : "all"); // e.g. hilo,ko,zen
+			TableRules rules = TableRules.parse(args.length > 6 ? args[6] : "all");
+			int threads = args.length > 7 ? Integer.parseInt(args[7]) : 0;
+
+			BasicStrategy strategy = BasicStrategy.load(BasicStrategy.cacheFile("res", decks), decks);
+			ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+			CountResult result = new CountAnalysis(strategy, rules, decks, penetration, seed, systems).run(shoes, pool);
+			if (threads > 0) pool.shutdown();
+
+			System.out.println(decks + " deck(s), cut at " + penetration + ", rules: " + rules + ", " + strategy + ", flat bet");
+			System.out.print(result);
+			return;
+		}
+
+		// strategy mode: print the precomputed hit/stand chart (and cache it in res/)
+		if (args.length > 0 && args[0].equalsIgnoreCase("strategy")) {
+			int decks = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+			BasicStrategy.load(BasicStrategy.cacheFile("res", decks), decks).printChart(System.out);
+			return;
+		}
+
+		// odds mode: exact dealer results for a full shoe, every up card worked out in parallel
+		if (args.length > 0 && args[0].equalsIgnoreCase("odds")) {
+			int decks = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+			long start = System.nanoTime();
+			double[][] odds = new DealerOdds(DealerOdds.shoeCounts(decks)).all();
+			DealerOdds.printTable(System.out, odds);
+			System.out.println("(" + decks + " deck(s), " + (System.nanoTime() - start) / 1000000 + " ms)");
+			return;
+		}
+
+		// replay mode: re-deal every logged round headlessly and compare the results
+		if (args.length > 0 && args[0].equalsIgnoreCase("replay")) {
+			String file = args.length > 1 ? args[1] : "res/rounds.log";
+			RoundReplayer replayer = new RoundReplayer();
+			try {
+				replayer.replay(file);
+				System.out.println(replayer);
+			} catch (IOException e) {
+				System.out.println("[error] can't replay " + file + ": " + e.getMessage());
+			}
+			return;
+		}
+
 		// make the game manager - menus, loading/saving players, and running blackjack
 		GameManager gm = new GameManager();
 
+		// server mode: every TCP connection gets its own session (see LoadGenerator for a load test)
+		if (args.length > 0 && args[0].equalsIgnoreCase("server")) {
+			int port = args.length > 1 ? Integer.parseInt(args[1]) : 5150;
+			gm.launchServer(port);
+			return;
+		}
+
+		// convert mode: turn res/CasinoInfo.txt into the binary database and stop
+		if (args.length > 0 && args[0].equalsIgnoreCase("convert")) {
+			gm.convertToBinary();
+			return;
+		}
+
+		// shard mode: split res/CasinoInfo.txt into n shard files and stop
+		if (args.length > 0 && args[0].equalsIgnoreCase("shard")) {
+			gm.convertToShards(args.length > 1 ? Integer.parseInt(args[1]) : 16);
+			return;
+		}
+
+		// tournament mode: every player plays <rounds> automated rounds, results saved at the end
+		if (args.length > 0 && args[0].equalsIgnoreCase("tournament")) {
+			int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+			int bet = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+			String play = args.length > 3 ? args[3] : "basic";
+			int decks = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+			long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+			int threads = args.length > 6 ? Integer.parseInt(args[6]) : 0;
+
+			PlayerStrategy strategy = play.equalsIgnoreCase("basic")
+					? BasicStrategy.load(BasicStrategy.cacheFile("res", decks), decks)
+					: new ThresholdStrategy(Integer.parseInt(play));
+			gm.runTournament(rounds, Math.max(1, bet), strategy, decks, 0.75, seed, threads);
+			return;
+		}
+
+		// table mode: people (hot-seat) and basic strategy bots at one multi-seat table
+		if (args.length > 0 && args[0].equalsIgnoreCase("table")) {
+			int bots = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+			ArrayList<String> names = new ArrayList<String>();
+			for (int i = 2; i < args.length; i++) names.add(args[i]);
+			gm.launchTable(names, bots, TableRules.parse(System.getProperty("casino.rules", "all")));
+			return;
+		}
+
 		// starts the app loop, this will keep showing menus until the user exits
 
 		gm.launchApplication();
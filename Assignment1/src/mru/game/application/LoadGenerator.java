@@ -0,0 +1,151 @@
+package mru.game.application;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+  load test client for the blackjack server.
+  opens a number of sessions at the same time; each one logs in as its own player and plays
+  rounds (bet $2, stand) while timing each round from sending the bet to the "continue" prompt.
+  prints sessions, rounds/sec and p50 / p99 / max round latency.
+  the players are always load-0, load-1, ... so repeated runs reuse the same ones instead of adding
+  new players to the server's database every time. they keep their balance between runs, so a
+  session only plays the rounds its player can still pay for (a broke one plays none)
+  run: java mru.game.application.LoadGenerator [host] [port] [sessions] [rounds per session]
+*/
+public class LoadGenerator {
+
+	private static final int BET = 2;
+
+	public static void main(String[] args) throws InterruptedException {
+		String host = args.length > 0 ? args[0] : "localhost";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 5150;
+		int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+		long[] latencies = new long[sessions * rounds]; // nanos, one slot per round
+		AtomicInteger failures = new AtomicInteger();
+		AtomicInteger broke = new AtomicInteger(); // sessions whose player couldn't afford every round
+		CountDownLatch done = new CountDownLatch(sessions);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < sessions; i++) {
+			final int id = i;
+			Thread t = new Thread(() -> {
+				try {
+					if (playSession(host, port, "load-" + id, rounds, latencies, id * rounds) < rounds) {
+						broke.incrementAndGet();
+					}
+				} catch (IOException e) {
+					failures.incrementAndGet();
+				} finally {
+					done.countDown();
+				}
+			});
+			t.setDaemon(true);
+			t.start();
+		}
+		done.await();
+		long elapsed = System.nanoTime() - start;
+
+		if (broke.get() > 0) {
+			System.out.println("[info] " + broke.get() + " load-N players ran short of money and played fewer rounds");
+		}
+
+		// failed sessions (and rounds a player couldn't afford) leave zeros in their slots, which are skipped
+		long[] ok = Arrays.stream(latencies).filter(v -> v > 0).sorted().toArray();
+		System.out.printf("sessions: %d (%d failed)  rounds: %d  time: %.2fs  rounds/sec: %.0f%n",
+				sessions, failures.get(), ok.length, elapsed / 1e9, ok.length / (elapsed / 1e9));
+		if (ok.length > 0) {
+			System.out.printf("round latency ms  p50: %.2f  p99: %.2f  max: %.2f%n",
+					percentile(ok, 0.50) / 1e6, percentile(ok, 0.99) / 1e6, ok[ok.length - 1] / 1e6);
+		}
+	}
+
+	// one scripted session: P, name, then rounds of bet/stand/continue, then exit; returns rounds played
+	private static int playSession(String host, int port, String name, int rounds,
+			long[] latencies, int slot) throws IOException {
+		try (Socket s = new Socket(host, port)) {
+			s.setTcpNoDelay(true);
+			Reader in = new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8);
+			OutputStream out = s.getOutputStream();
+
+			waitFor(in, "Enter a choice: ");
+			send(out, "P");
+			waitFor(in, "Enter your name: ");
+			send(out, name);
+
+			// standing loses at most the bet, so the balance says how many rounds are safe
+			waitFor(in, "balance is: ");
+			int balance = readInt(in);
+			int playable = Math.min(rounds, balance / BET);
+
+			if (playable == 0 && balance > 0) {
+				waitFor(in, "bet this round? ");
+				send(out, "0"); // can't cover the minimum bet, back to the menu
+			}
+			// (with $0 the server sends the session back to the menu itself)
+			for (int r = 0; r < playable; r++) {
+				waitFor(in, "bet this round? ");
+				long t0 = System.nanoTime();
+				send(out, Integer.toString(BET));
+				waitFor(in, "Your choice: ");
+				send(out, "2"); // stand
+				waitFor(in, "(y/n)? ");
+				latencies[slot + r] = System.nanoTime() - t0;
+				send(out, r + 1 < playable ? "y" : "n");
+			}
+
+			waitFor(in, "Enter a choice: ");
+			send(out, "E");
+			waitFor(in, "visit us again!");
+			return playable;
+		}
+	}
+
+	private static void send(OutputStream out, String line) throws IOException {
+		out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+		out.flush();
+	}
+
+	// reads until the text has been seen (throws if the server closes the connection first)
+	private static void waitFor(Reader in, String text) throws IOException {
+		int matched = 0;
+		while (matched < text.length()) {
+			int c = in.read();
+			if (c < 0) throw new IOException("server closed the connection");
+			if (c == text.charAt(matched)) {
+				matched++;
+			} else {
+				matched = (c == text.charAt(0)) ? 1 : 0;
+			}
+		}
+	}
+
+	// the whole number that comes next (spaces before it are skipped)
+	private static int readInt(Reader in) throws IOException {
+		int c;
+		do {
+			c = in.read();
+		} while (c == ' ');
+		int n = 0;
+		while (c >= '0' && c <= '9') {
+			n = n * 10 + (c - '0');
+			c = in.read();
+		}
+		if (c < 0) throw new IOException("server closed the connection");
+		return n;
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		int i = (int) Math.ceil(p * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+	}
+}
@@ -0,0 +1,256 @@
+package mru.game.controller;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/*
+  notes:
+  - "what should this hand do" for bots and the simulator, answered with one array read
+  - decisions are precomputed into a dense byte table indexed by (soft, player total, dealer up card)
+  - the table comes from exact expected values: the dealer's final-total odds for every up card
+    (DealerOdds, exact for a full shoe of the given decks) and the player's best play for every
+    total, worked out over every card that can come next (drawn at the shoe's card-value odds)
+  - computing it is cheap but not free, so load() keeps a copy on disk (one file per deck count,
+    see cacheFile) and only rebuilds it when the file is missing or from an older version.
+    a rebuilt file goes to <file>.tmp first and is renamed over the old one, like SnapshotWriter
+  - two more tables for tables with rules (TableRules): where doubling beats hitting / standing,
+    and which pairs to split. doubling is one card then stand at twice the bet; a split is valued as
+    two hands that each start with one of the pair cards (doubling after the split allowed,
+    split aces get one card), resplits aren't counted
+  - insurance is never worth it for a player who doesn't count cards, so it's always declined
+  - the table is read-only after construction, one instance can be shared by all simulator threads
+*/
+public class BasicStrategy implements PlayerStrategy {
+
+	// decision codes (decision() / pairDecision())
+	public static final byte STAND = 0;
+	public static final byte HIT = 1;
+	public static final byte DOUBLE = 2;
+	public static final byte SPLIT = 3;
+
+	private static final int MAGIC = 0x42535431; // "BST1"
+	private static final int VERSION = 3;
+
+	private static final int TOTALS = 22; // player totals 0..21 (only 4..21 can happen)
+	private static final int UPS = 11;    // dealer up card points 1..10 (ace = 1, index 0 unused)
+	private static final int SIZE = 2 * TOTALS * UPS;
+	private static final int PAIRS = 11 * UPS; // pair card points 1..10 x dealer up card
+
+	private final byte[] table;   // HIT or STAND (what to do when doubling isn't allowed)
+	private final byte[] doubles; // 1 where doubling is the best play on two cards
+	private final byte[] splits;  // 1 where the pair should be split
+
+	private BasicStrategy(byte[] table, byte[] doubles, byte[] splits) {
+		this.table = table;
+		this.doubles = doubles;
+		this.splits = splits;
+	}
+
+	// where the table for this many decks is cached in a res folder
+	public static String cacheFile(String resDir, int decks) {
+		return resDir + "/BasicStrategy-" + decks + ".bin";
+	}
+
+	/*
+	  reads the cached table for this many decks from the given file, or computes it and writes the file
+	  (a bad or missing cache is never an error, it just gets rebuilt)
+	*/
+	public static BasicStrategy load(String cachePath, int decks) {
+		File f = new File(cachePath);
+		if (f.isFile()) {
+			try (DataInputStream in = new DataInputStream(new FileInputStream(f))) {
+				if (in.readInt() == MAGIC && in.readInt() == VERSION && in.readInt() == decks && in.readInt() == SIZE) {
+					byte[] t = new byte[SIZE];
+					byte[] d = new byte[SIZE];
+					byte[] p = new byte[PAIRS];
+					in.readFully(t);
+					in.readFully(d);
+					in.readFully(p);
+					return new BasicStrategy(t, d, p);
+				}
+			} catch (IOException e) {
+				System.out.println("[warn] strategy cache unreadable, rebuilding: " + e.getMessage());
+			}
+		}
+
+		BasicStrategy s = compute(decks);
+		File tmp = new File(cachePath + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(decks);
+				out.writeInt(SIZE);
+				out.write(s.table);
+				out.write(s.doubles);
+				out.write(s.splits);
+			}
+			// a reader never sees half a file (and a bad one would only be rebuilt anyway)
+			Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.out.println("[warn] can't cache strategy table: " + e.getMessage());
+			tmp.delete();
+		}
+		return s;
+	}
+
+	// builds the table from scratch for a shoe of the given number of decks (no disk)
+	public static BasicStrategy compute(int decks) {
+		int[] shoe = DealerOdds.shoeCounts(decks);
+		double[][] odds = new DealerOdds(shoe).all(); // all up cards at once, in parallel
+
+		// chance of each card value coming next for the player's hits
+		double[] draw = new double[11];
+		for (int v = 1; v <= 10; v++) draw[v] = shoe[v] / (52.0 * decks);
+
+		byte[] t = new byte[SIZE];
+		byte[] dbl = new byte[SIZE];
+		byte[] pairs = new byte[PAIRS];
+		for (int up = 1; up <= 10; up++) {
+			// hit / stand as in the classic game; double and split for a table where the dealer has
+			// already checked for blackjack (the odds without the dealer blackjacks)
+			solve(odds[up], draw, up, t, null, null);
+			solve(withoutBlackjack(odds[up], up, draw), draw, up, null, dbl, pairs);
+		}
+		return new BasicStrategy(t, dbl, pairs);
+	}
+
+	// fills the given tables (null = skip) for one dealer up card
+	private static void solve(double[] dealer, double[] draw, int up, byte[] t, byte[] dbl, byte[] pairs) {
+		double[][] play = new double[22][2]; // best of stand / hit / double (a two-card hand)
+
+		// best[hard][ace] = EV of the best play from there; filled from 21 down because a hit only
+		// ever makes the hard total bigger
+		double[][] best = new double[22][2];
+		for (int hard = 21; hard >= 2; hard--) {
+			for (int ace = 0; ace <= 1; ace++) {
+				int total = (ace == 1 && hard <= 11) ? hard + 10 : hard;
+				double stand = standValue(total, dealer);
+
+				double hit = 0;
+				for (int v = 1; v <= 10; v++) {
+					int nh = hard + v;
+					hit += draw[v] * (nh > 21 ? -1.0 : best[nh][(ace == 1 || v == 1) ? 1 : 0]);
+				}
+
+				// double: one card, then stand, for twice the bet
+				double doubled = 0;
+				for (int v = 1; v <= 10; v++) {
+					int nh = hard + v;
+					int nt = ((ace == 1 || v == 1) && nh <= 11) ? nh + 10 : nh;
+					doubled += draw[v] * (nh > 21 ? -2.0 : 2 * standValue(nt, dealer));
+				}
+
+				best[hard][ace] = Math.max(stand, hit);
+				play[hard][ace] = Math.max(best[hard][ace], doubled);
+				boolean soft = ace == 1 && hard <= 11;
+				// a hard hand holding an ace plays exactly like one without, so both land in one slot
+				if (soft || ace == 0) {
+					if (t != null) t[index(total, soft, up)] = hit > stand ? HIT : STAND;
+					if (dbl != null) dbl[index(total, soft, up)] = (byte) (doubled > best[hard][ace] ? 1 : 0);
+				}
+			}
+		}
+		if (pairs == null) return;
+
+		// pairs: two hands that each start with one pair card, against playing the pair as it is
+		for (int c = 1; c <= 10; c++) {
+			double one = 0;
+			for (int v = 1; v <= 10; v++) {
+				int hard = c + v;
+				int ace = (c == 1 || v == 1) ? 1 : 0;
+				int total = (ace == 1 && hard <= 11) ? hard + 10 : hard;
+				one += draw[v] * (c == 1 ? standValue(total, dealer) : play[hard][ace]);
+			}
+			pairs[c * UPS + up] = (byte) (2 * one > play[2 * c][c == 1 ? 1 : 0] ? 1 : 0);
+		}
+	}
+
+	// dealer odds given that the hole card doesn't make a blackjack (only an ace or ten up card can)
+	private static double[] withoutBlackjack(double[] dealer, int up, double[] draw) {
+		double bj = up == 1 ? draw[10] : (up == 10 ? draw[1] : 0);
+		if (bj == 0) return dealer;
+		double[] out = dealer.clone();
+		out[21 - 17] -= bj;
+		for (int k = 0; k < out.length; k++) out[k] /= (1 - bj);
+		return out;
+	}
+
+	// EV of standing on a total: the dealer only draws when the player hasn't busted
+	private static double standValue(int total, double[] dealer) {
+		double ev = dealer[5]; // dealer busts → win
+		for (int d = 17; d <= 21; d++) {
+			if (total > d) ev += dealer[d - 17];
+			else if (total < d) ev -= dealer[d - 17];
+		}
+		return ev;
+	}
+
+	private static int index(int total, boolean soft, int upPoints) {
+		return ((soft ? TOTALS : 0) + total) * UPS + upPoints;
+	}
+
+	// the table entry for a hand (dealerUpRank is the card rank, face cards map to 10)
+	public byte decision(int playerTotal, boolean soft, int dealerUpRank) {
+		int i = index(playerTotal, soft, dealerUpRank >= 10 ? 10 : dealerUpRank);
+		return doubles[i] == 1 ? DOUBLE : table[i];
+	}
+
+	// SPLIT or the decision for the pair's total (pairPoints: 1 = aces, 10 = tens)
+	public byte pairDecision(int pairPoints, int dealerUpRank) {
+		if (splits[pairPoints * UPS + (dealerUpRank >= 10 ? 10 : dealerUpRank)] == 1) return SPLIT;
+		return pairPoints == 1 ? decision(12, true, dealerUpRank) : decision(pairPoints * 2, false, dealerUpRank);
+	}
+
+	public boolean shouldHit(int playerTotal, boolean soft, int dealerUpRank) {
+		return table[index(playerTotal, soft, dealerUpRank >= 10 ? 10 : dealerUpRank)] == HIT;
+	}
+
+	public boolean shouldDouble(int playerTotal, boolean soft, int dealerUpRank) {
+		return doubles[index(playerTotal, soft, dealerUpRank >= 10 ? 10 : dealerUpRank)] == 1;
+	}
+
+	public boolean shouldSplit(int pairPoints, int dealerUpRank) {
+		return splits[pairPoints * UPS + (dealerUpRank >= 10 ? 10 : dealerUpRank)] == 1;
+	}
+
+	// prints the hard, soft and pair charts (H = hit, S = stand, D = double, P = split) for checking by eye
+	public void printChart(PrintStream out) {
+		for (int s = 0; s <= 1; s++) {
+			boolean soft = s == 1;
+			out.println(soft ? "SOFT   2  3  4  5  6  7  8  9 10  A" : "HARD   2  3  4  5  6  7  8  9 10  A");
+			for (int total = soft ? 13 : 5; total <= 21; total++) {
+				StringBuilder line = new StringBuilder(String.format("%4d   ", total));
+				for (int up = 2; up <= 11; up++) {
+					byte d = decision(total, soft, up == 11 ? 1 : up);
+					line.append(d == DOUBLE ? "D" : (d == HIT ? "H" : "S")).append("  ");
+				}
+				out.println(line.toString().stripTrailing());
+			}
+			out.println();
+		}
+
+		out.println("PAIR   2  3  4  5  6  7  8  9 10  A");
+		for (int c = 2; c <= 11; c++) {
+			int pts = c == 11 ? 1 : c;
+			StringBuilder line = new StringBuilder(String.format("%2s,%-2s  ", c == 11 ? "A" : c, c == 11 ? "A" : c));
+			for (int up = 2; up <= 11; up++) {
+				byte d = pairDecision(pts, up == 11 ? 1 : up);
+				line.append(d == SPLIT ? "P" : (d == DOUBLE ? "D" : (d == HIT ? "H" : "S"))).append("  ");
+			}
+			out.println(line.toString().stripTrailing());
+		}
+		out.println();
+	}
+
+	public String toString() {
+		return "basic strategy";
+	}
+}
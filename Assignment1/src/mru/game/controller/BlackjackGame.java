@@ -1,36 +1,82 @@
 package mru.game.controller;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Scanner;
 
 import mru.game.model.Player;
+import mru.game.view.TableRenderer;
 
 /*
   notes:
   - prints and runs one round of blackjack
   - shows only the dealer’s first card until the player stands or busts
+  - one per session (it keeps its hands between rounds, so it isn't shared)
 */
 public class BlackjackGame {
 
-	private CardDeck deck; // shared deck passed in from game manager
+	private CardSource shoe; // shoe passed in from game manager (one per table / session)
+	private PrintStream out; // where the board and results are printed
+	private TableRenderer renderer; // reused for every board this game prints
+	private PlayerStrategy strategy; // when set, answers hit/stand instead of the Scanner (bot seat)
 
-	public BlackjackGame(CardDeck deck) {
-		this.deck = deck; // remember the shared deck so we can draw cards from it
+	// hands are reused between rounds like HeadlessRound's (they keep their own totals, see Hand)
+	private Hand playerHand = new Hand();
+	private Hand dealerHand = new Hand();
+
+	// what the current round used, for the round log (reused every round)
+	private RoundLog roundLog;            // null = rounds aren't logged
+	private byte[] dealt = new byte[32];  // cards in the order they came out of the shoe
+	private int dealtCount;
+	private byte[] choices = new byte[32]; // the player's hit/stand answers
+	private int choiceCount;
+
+	public BlackjackGame(CardSource shoe) {
+		this(shoe, System.out, new TableRenderer());
+	}
+
+	// the renderer has to be made for out's charset (it writes bytes straight to the stream)
+	public BlackjackGame(CardSource shoe, PrintStream out, TableRenderer renderer) {
+		this.shoe = shoe; // remember the shoe so we can draw cards from it
+		this.out = out;
+		this.renderer = renderer;
+	}
+
+	// records every round (cards, answers, result) to the given log
+	public void setRoundLog(RoundLog roundLog) {
+		this.roundLog = roundLog;
+	}
+
+	// plays the player's side automatically with the given strategy (null = ask the Scanner again)
+	public void setStrategy(PlayerStrategy strategy) {
+		this.strategy = strategy;
 	}
 
 	/*
 	  plays one full round:
 	  - deals 2 to player, 2 to dealer
-	  - lets player hit/stand (menu)
+	  - lets player hit/stand (menu, or the strategy if one was set)
 	  - if player stands and didn’t bust, dealer draws to 17
 	  - prints the final result and updates the player object (wins/balance)
 	  returns the net change to the player balance (positive = won, negative = lost, 0 = push)
 	*/
 	public int playRound(Scanner input, int bet, Player player) {
 
-		// hands for this round
-		ArrayList<Card> playerHand = new ArrayList<Card>();
-		ArrayList<Card> dealerHand = new ArrayList<Card>();
+		// instrumentation: game-side time only, so the time spent waiting for the user is subtracted
+		long started = GameMetrics.ENABLED ? System.nanoTime() : 0;
+		long waited = 0;
+		long shufflesBefore = shoe.getShuffles();
+
+		dealtCount = 0;
+		choiceCount = 0;
+
+		// empty the hands from last round
+		playerHand.clear();
+		dealerHand.clear();
+
+		// reshuffle first if the cut card came out last round
+		shoe.startRound();
 
 		// initial deal: player, dealer, player, dealer
 		playerHand.add(drawFromDeck());
@@ -47,24 +93,37 @@ public class BlackjackGame {
 		// player turn loop: keep asking until stand or bust
 		while (!playerBust && !playerStand) {
 			// simple menu like sample
-			System.out.println("Select an option:\n");
-			System.out.println("                  1. Hit");
-			System.out.println("                  2. Stand\n");
-			System.out.print("Your choice: ");
-
-			String ans = input.nextLine().trim();
-			System.out.println(); // spacing after user input so it looks clean
+			out.println("Select an option:\n");
+			out.println("                  1. Hit");
+			out.println("                  2. Stand\n");
+			out.print("Your choice: ");
+
+			String ans;
+			if (strategy != null) {
+				// bot seat: one table lookup instead of a typed answer (echoed so the log reads the same)
+				ans = strategy.shouldHit(playerHand.value(), playerHand.isSoft(), Cards.rank(dealerHand.get(0))) ? "1" : "2";
+				out.println(ans);
+			} else if (GameMetrics.ENABLED) {
+				long w = System.nanoTime();
+				ans = input.nextLine().trim();
+				waited += System.nanoTime() - w;
+			} else {
+				ans = input.nextLine().trim();
+			}
+			out.println(); // spacing after user input so it looks clean
 
 			if (ans.equals("1")) {
+				record(RoundLog.HIT);
 				// player hits → add one card and show the table again (still hiding dealer hole)
 				playerHand.add(drawFromDeck());
 				printBoard(playerHand, dealerHand, true);
 
 				// check if player busted after this hit
-				if (handValue(playerHand) > 21) {
+				if (playerHand.isBust()) {
 					playerBust = true;
 				}
 			} else if (ans.equals("2")) {
+				record(RoundLog.STAND);
 				// player stands → exit the loop and let dealer play
 				playerStand = true;
 			}
@@ -73,7 +132,7 @@ public class BlackjackGame {
 
 		// if player didn’t bust, now the dealer draws until at least 17
 		if (!playerBust) {
-			while (handValue(dealerHand) < 17) {
+			while (dealerHand.value() < 17) {
 				dealerHand.add(drawFromDeck());
 			}
 		}
@@ -82,8 +141,8 @@ public class BlackjackGame {
 		printBoard(playerHand, dealerHand, false);
 
 		// figure out who won and by how much
-		int playerVal = handValue(playerHand);
-		int dealerVal = handValue(dealerHand);
+		int playerVal = playerHand.value();
+		int dealerVal = dealerHand.value();
 		int delta = 0; // net change to balance (returned to caller)
 
 		// 4 cases: player busts, player beats dealer, dealer beats player, or push
@@ -91,94 +150,64 @@ public class BlackjackGame {
 			// player busted → immediate loss
 			player.addToBalance(-bet);
 			delta = -bet;
-			System.out.println("You lost " + bet + "$");
+			out.println("You lost " + bet + "$");
 		} else if (dealerVal > 21 || playerVal > dealerVal) {
 			// dealer busts or player total is higher → player wins
-			player.addToBalance(bet);
-			player.addWin(); // track wins for the “top players” feature
+			player.settle(bet, true); // money and the win (for the “top players” feature) in one atomic update
 			delta = bet;
-			System.out.println("You won " + bet + "$");
+			out.println("You won " + bet + "$");
 		} else if (playerVal < dealerVal) {
 			// dealer total is higher → player loses
 			player.addToBalance(-bet);
 			delta = -bet;
-			System.out.println("You lost " + bet + "$");
+			out.println("You lost " + bet + "$");
 		} else {
 			// same totals → push (no money changes hands)
-			System.out.println("Push (tie)");
+			out.println("Push (tie)");
+		}
+
+		out.println(); // blank line before the “continue (y/n)” prompt (printed by gamemanager)
+
+		if (roundLog != null) {
+			int outcome = delta > 0 ? HeadlessRound.WIN : (delta < 0 ? HeadlessRound.LOSS : HeadlessRound.PUSH);
+			roundLog.append(player.getName(), bet, dealt, dealtCount, choices, choiceCount, outcome, delta);
 		}
 
-		System.out.println(); // blank line before the “continue (y/n)” prompt (printed by gamemanager)
+		if (GameMetrics.ENABLED) {
+			GameMetrics.GLOBAL.roundPlayed(System.nanoTime() - started - waited,
+					playerHand.size() + dealerHand.size(), shoe.getShuffles() - shufflesBefore);
+		}
 		return delta; // tell caller the net change so it could be used if needed
 	}
 
 
-	// printing helpers (just ascii layout and manual spacing)
-
-	private void printBoard(ArrayList<Card> player, ArrayList<Card> dealer, boolean hideDealerHole) {
-	    // header lines (copied shape to match the sample on assignment guidelines)
-	    System.out.println("               -- BLACK JACK --");
-	    System.out.println("+======================+=====================+");
-	    System.out.println("|| PLAYER              | DEALER             ||");
-	    System.out.println("+======================+=====================+");
-
-	    // number of rows we need to print equals the larger hand size
-	    int rows = Math.max(player.size(), dealer.size());
-
-	    // print each row: left = player card, right = dealer card (or blank)
-	    for (int i = 0; i < rows; i++) {
-	        String left = "";   // player card text for this row
-	        String right = "";  // dealer card text for this row
-
-	        // fill in left side if player has a card at this row
-	        if (i < player.size()) {
-	            left = player.get(i).toString(); // e.g., "7 of Diamond"
-	        }
-
-	        // fill in right side if dealer has a card at this row
-	        if (i < dealer.size()) {
-	            if (hideDealerHole && i >= 1) {
-	                // if we are still hiding, only show dealer’s first card (index 0)
-	                right = ""; 
-	            } else {
-	                right = dealer.get(i).toString();
-	            }
-	        }
-
-	        // pad the two columns with spaces so things line up under the headers
-	        // (numbers chosen by eyeballing the header widths)
-	        while (left.length() < 20) {
-	            left += " ";
-	        }
-	        while (right.length() < 19) {
-	            right += " ";
-	        }
-
-	        // print the row (two columns) and a separator line below it
-	        System.out.println("| " + left + "|| " + right + " |");
-	        System.out.println("+----------------------+---------------------+");
-	    }
-
-	    System.out.println(); // blank line after the table to separate it from the next text
+	// printing helper: the whole table goes out as one buffered frame (see TableRenderer)
+	private void printBoard(Hand player, Hand dealer, boolean hideDealerHole) {
+		renderer.board(out, player, dealer, hideDealerHole);
 	}
 
-	// small string helper (not used right now, but left here in case we want to pad something quickly)
-	private String padRight(String s, int width) {
-		StringBuilder sb = new StringBuilder();
-		if (s == null) s = "";
-		sb.append(s);
-		while (sb.length() < width) sb.append(' ');
-		return sb.toString();
+	// drawing and scoring
+
+	// deals the next card from the shoe (an index bump, no list removal) and remembers it for the log
+	private byte drawFromDeck() {
+		byte c = shoe.draw();
+		if (dealtCount == dealt.length) dealt = Arrays.copyOf(dealt, dealtCount * 2);
+		dealt[dealtCount++] = c;
+		return c;
 	}
 
-	// drawing and scoring
+	private void record(byte choice) {
+		if (choiceCount == choices.length) choices = Arrays.copyOf(choices, choiceCount * 2);
+		choices[choiceCount++] = choice;
+	}
 
 	/*
-	  draws the top card from the shared deck:
+	  the original way of drawing from a CardDeck:
 	  - if the deck is empty, rebuilds a fresh 52-card deck and shuffles it
 	  - returns one Card and removes it from the end of the arraylist
+	  the game deals from a Shoe now; this is kept public so benchmarks can compare against it
 	*/
-	private Card drawFromDeck() {
+	public static Card drawFrom(CardDeck deck) {
 		// use only the exposed list from CardDeck (we are not changing CardDeck.java)
 		ArrayList<Card> d = deck.getDeck();
 
@@ -210,8 +239,10 @@ public class BlackjackGame {
 	  - number cards are their face value
 	  - 10/jack/queen/king count as 10
 	  - aces count as 11 first, then are reduced to 1 if we bust
+	  the game itself now scores with Hand (running total, O(1) per card);
+	  this list version is kept public so benchmarks can compare against it
 	*/
-	private int handValue(ArrayList<Card> hand) {
+	public static int handValue(ArrayList<Card> hand) {
 		int total = 0;
 		int aces = 0; // count how many aces we treated as 11 so we can reduce if needed
 
@@ -0,0 +1,19 @@
+package mru.game.controller;
+
+/*
+  what the round engines (BlackjackGame, HeadlessRound, TableRound) deal from:
+  Shoe, ConcurrentShoe (and its per-session handles) and the replayer's scripted shoe.
+  an interface and not a base class, so every kind of shoe builds only its own state
+  and no overridable method runs from a constructor
+*/
+public interface CardSource {
+
+	// call before dealing a round: reshuffles if the cut card has come out
+	void startRound();
+
+	// deals the next card (reshuffling on the spot if the shoe runs dry)
+	byte draw();
+
+	// reshuffles done by this source (a session handle only counts its own, see ConcurrentShoe)
+	long getShuffles();
+}
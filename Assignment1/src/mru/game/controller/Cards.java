@@ -0,0 +1,65 @@
+package mru.game.controller;
+
+/*
+  notes:
+  - compact card encoding for the hot paths: one byte per card instead of a Card object
+  - code = suit * 16 + rank   (rank 1..13 like Card, suit 0..3 in CardDeck order:
+    Spades, Diamond, Clubs, Hearts)
+  - labels are built once, so printing a card never builds a new string
+*/
+public final class Cards {
+
+	public static final String[] SUITS = { "Spades", "Diamond", "Clubs", "Hearts" };
+
+	private static final String[] LABELS = new String[64]; // code -> "7 of Diamond" etc.
+
+	static {
+		for (int s = 0; s < 4; s++) {
+			for (int r = 1; r <= 13; r++) {
+				LABELS[s * 16 + r] = new Card(r, SUITS[s]).toString();
+			}
+		}
+	}
+
+	private Cards() {
+	}
+
+	public static byte encode(int rank, int suit) {
+		return (byte) (suit * 16 + rank);
+	}
+
+	// code for an existing Card object
+	public static byte encode(Card c) {
+		return encode(c.getRank(), suitIndex(c.getSuit()));
+	}
+
+	public static int rank(byte code) {
+		return code & 15;
+	}
+
+	public static int suit(byte code) {
+		return (code >> 4) & 3;
+	}
+
+	// blackjack points with aces as 1 (face cards are 10)
+	public static int points(byte code) {
+		int r = code & 15;
+		return r >= 10 ? 10 : r;
+	}
+
+	// same text as Card.toString()
+	public static String label(byte code) {
+		return LABELS[code & 63];
+	}
+
+	public static Card toCard(byte code) {
+		return new Card(rank(code), SUITS[suit(code)]);
+	}
+
+	private static int suitIndex(String suit) {
+		for (int i = 0; i < SUITS.length; i++) {
+			if (SUITS[i].equals(suit)) return i;
+		}
+		throw new IllegalArgumentException("unknown suit: " + suit);
+	}
+}
@@ -0,0 +1,151 @@
+package mru.game.controller;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+  notes:
+  - a shoe that any number of threads (sessions, seats) can deal from at the same time, without locks
+  - the shoe is an "epoch": a shuffled card array that never changes once it's published,
+    plus an atomic counter. drawing = one getAndIncrement to claim an index, then read that card.
+    every index is claimed by exactly one thread, so a card is never dealt twice
+  - reshuffling doesn't touch the current array: the thread that finds the shoe empty (or past the
+    cut card in startRound) shuffles a NEW array and swaps it in with a compare-and-set.
+    if two threads try at once only one swap wins, the other one just retries on the new epoch.
+    nobody ever waits for a lock, a slow thread only slows itself down
+  - every epoch is shuffled with a random generator seeded from the shoe seed and the epoch number,
+    so shuffles don't share a generator between threads and the same seed gives the same shoes
+  - the order cards come out in depends on how the threads interleave, only the shoes are repeatable
+  - getShuffles() counts the shoe's reshuffles from every thread; session() gives one session a handle
+    whose getShuffles() only counts the reshuffles that session did itself (for its round metrics)
+*/
+public class ConcurrentShoe implements CardSource {
+
+	private final int decks;
+	private final int cut;    // reshuffle at startRound once this many cards are dealt
+	private final long seed;
+	private final AtomicReference<Epoch> current; // epoch 1 is the first shoe
+
+	// one deck, dealt all the way down (same as new Shoe())
+	public ConcurrentShoe() {
+		this(1, 1.0, new SplittableRandom().nextLong());
+	}
+
+	public ConcurrentShoe(int decks, double penetration, long seed) {
+		if (decks < 1) throw new IllegalArgumentException("need at least one deck");
+		if (penetration <= 0 || penetration > 1) throw new IllegalArgumentException("penetration must be in (0, 1]");
+		this.decks = decks;
+		this.cut = Math.max(1, (int) (decks * 52 * penetration));
+		this.seed = seed;
+		this.current = new AtomicReference<Epoch>(newEpoch(1));
+	}
+
+	// one shuffled shoe, never changed after it's made
+	private static final class Epoch {
+		final byte[] cards;
+		final long number;
+		final AtomicInteger next = new AtomicInteger(); // next index to claim (can run past the end)
+
+		Epoch(byte[] cards, long number) {
+			this.cards = cards;
+			this.number = number;
+		}
+	}
+
+	// a session's handle: deals from this shoe, counts only the reshuffles it did (one session, one thread)
+	private final class Session implements CardSource {
+		private long shuffles;
+
+		public void startRound() {
+			if (reshuffleIfCut()) shuffles++;
+		}
+
+		public byte draw() {
+			return deal(this);
+		}
+
+		public long getShuffles() {
+			return shuffles;
+		}
+	}
+
+	// a handle for one session (give every session / connection its own)
+	public CardSource session() {
+		return new Session();
+	}
+
+	// reshuffles if the cut card has come out (whichever session gets here first does it)
+	public void startRound() {
+		reshuffleIfCut();
+	}
+
+	public byte draw() {
+		return deal(null);
+	}
+
+	// starts a new shoe right away
+	public void shuffle() {
+		swap(current.get());
+	}
+
+	public int remaining() {
+		Epoch e = current.get();
+		return Math.max(0, e.cards.length - e.next.get());
+	}
+
+	public int size() {
+		return decks * 52;
+	}
+
+	public int decks() {
+		return decks;
+	}
+
+	// every reshuffle of the shoe, by any thread (counting the first shuffle, like Shoe)
+	public long getShuffles() {
+		return current.get().number;
+	}
+
+	// true if this call did the reshuffle
+	private boolean reshuffleIfCut() {
+		Epoch e = current.get();
+		return e.next.get() >= cut && swap(e);
+	}
+
+	private byte deal(Session by) {
+		while (true) {
+			Epoch e = current.get();
+			int i = e.next.getAndIncrement();
+			if (i < e.cards.length) return e.cards[i];
+			// empty: bring in a new shoe (or find someone else already did) and try again
+			if (swap(e) && by != null) by.shuffles++;
+		}
+	}
+
+	// replaces epoch e with a fresh one unless another thread already replaced it; true if this call did
+	private boolean swap(Epoch e) {
+		if (current.get() != e) return false;
+		return current.compareAndSet(e, newEpoch(e.number + 1));
+	}
+
+	private Epoch newEpoch(long number) {
+		byte[] cards = new byte[decks * 52];
+		int i = 0;
+		for (int d = 0; d < decks; d++) {
+			for (int s = 0; s < 4; s++) {
+				for (int r = 1; r <= 13; r++) {
+					cards[i++] = Cards.encode(r, s);
+				}
+			}
+		}
+		SplittableRandom rng = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * number));
+		for (int k = cards.length - 1; k > 0; k--) {
+			int j = rng.nextInt(k + 1);
+			byte tmp = cards[k];
+			cards[k] = cards[j];
+			cards[j] = tmp;
+		}
+		return new Epoch(cards, number);
+	}
+}
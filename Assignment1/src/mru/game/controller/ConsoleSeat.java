@@ -0,0 +1,83 @@
+package mru.game.controller;
+
+import java.io.PrintStream;
+import java.util.Scanner;
+
+/*
+  notes:
+  - a seat at a TableRound played by a person: every hit/stand question is asked on the console
+    (same "1. Hit / 2. Stand" menu as the one-player game), double / split / insurance as y/n questions
+    when the table's rules offer them
+  - shows the seat's cards and the dealer's up card before asking, since at a full table
+    the other seats' cards go by in between
+  - unlike the bot strategies this one has state (its streams), so one per seat, never shared
+*/
+public class ConsoleSeat implements PlayerStrategy {
+
+	private final Scanner input;
+	private final PrintStream out;
+	private final String name;
+	private TableRound table; // set with sitAt, to show the seat's cards
+	private int seat;
+
+	public ConsoleSeat(Scanner input, PrintStream out, String name) {
+		this.input = input;
+		this.out = out;
+		this.name = name;
+	}
+
+	public void sitAt(TableRound table, int seat) {
+		this.table = table;
+		this.seat = seat;
+	}
+
+	public boolean shouldHit(int playerTotal, boolean soft, int dealerUpRank) {
+		while (true) {
+			showHand(playerTotal, soft);
+			out.println("Select an option:\n");
+			out.println("                  1. Hit");
+			out.println("                  2. Stand\n");
+			out.print("Your choice: ");
+			String ans = input.nextLine().trim();
+			out.println();
+
+			if (ans.equals("1")) return true;
+			if (ans.equals("2")) return false;
+			// anything else asks again, like the one-player game
+		}
+	}
+
+	public boolean shouldDouble(int playerTotal, boolean soft, int dealerUpRank) {
+		showHand(playerTotal, soft);
+		return askYesNo("Double down (double the bet, one more card)? (y/n) ");
+	}
+
+	public boolean shouldSplit(int pairPoints, int dealerUpRank) {
+		showHand(pairPoints == 1 ? 12 : pairPoints * 2, pairPoints == 1);
+		return askYesNo("Split your pair into two hands? (y/n) ");
+	}
+
+	public boolean takeInsurance() {
+		out.println(name + ", the dealer shows an ace.");
+		return askYesNo("Take insurance (half your bet, pays 2:1 if the dealer has blackjack)? (y/n) ");
+	}
+
+	private void showHand(int playerTotal, boolean soft) {
+		out.println(name + ", your cards:");
+		if (table != null) {
+			int h = table.activeHand(seat);
+			Hand hand = table.hand(seat, h);
+			if (table.handCount(seat) > 1) out.println("(hand " + (h + 1) + " of " + table.handCount(seat) + ")");
+			for (int i = 0; i < hand.size(); i++) out.println("        " + Cards.label(hand.get(i)));
+			out.println("dealer shows: " + Cards.label(table.dealerHand().get(0)));
+		}
+		out.println("your total: " + playerTotal + (soft ? " (soft)" : "") + "\n");
+	}
+
+	private boolean askYesNo(String question) {
+		out.print(question);
+		String ans = input.nextLine().trim();
+		out.println();
+		return ans.length() > 0 && Character.toUpperCase(ans.charAt(0)) == 'Y';
+	}
+}
@@ -0,0 +1,97 @@
+package mru.game.controller;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+  notes:
+  - how the count changes the player's edge: deals whole shoes (shuffle to cut card) at a one-seat
+    TableRound and records every hand under the true count it was bet at, for every counting system
+  - the work is split by shoe on a fork-join pool: ranges of shoes are halved until they're small,
+    every leaf range gets its own CountingShoe, TableRound and CountResult, and the results are
+    merged on the way back up the joins, so workers never share anything while they deal
+  - a leaf's seed comes from the analysis seed and the leaf's first shoe, and the leaf ranges only
+    depend on the shoe count, so the same seed gives the same histograms however the pool schedules it
+  - the bet is flat (one unit every hand): this measures the edge at each count, not a betting plan
+*/
+public class CountAnalysis {
+
+	private static final long LEAF_SHOES = 256; // shoes per task once a range is this small
+
+	private final PlayerStrategy strategy; // shared, strategies are stateless
+	private final TableRules rules;
+	private final int decks;
+	private final double penetration;
+	private final long seed;
+	private final CountingSystem[] systems;
+
+	public CountAnalysis(PlayerStrategy strategy, TableRules rules, int decks, double penetration, long seed,
+			CountingSystem[] systems) {
+		this.strategy = strategy;
+		this.rules = rules;
+		this.decks = decks;
+		this.penetration = penetration;
+		this.seed = seed;
+		this.systems = systems;
+	}
+
+	// deals the given number of shoes on the pool and returns the merged histograms
+	public CountResult run(long shoes, ForkJoinPool pool) {
+		long start = System.nanoTime();
+		CountResult r = shoes <= 0 ? new CountResult(systems) : pool.invoke(new Range(0, shoes));
+		r.setElapsedNanos(System.nanoTime() - start);
+		return r;
+	}
+
+	// a range of shoes: split in half until it's small, then deal it
+	private final class Range extends RecursiveTask<CountResult> {
+		private static final long serialVersionUID = 1L;
+
+		private final long from;
+		private final long to;
+
+		Range(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected CountResult compute() {
+			if (to - from <= LEAF_SHOES) return deal();
+
+			long mid = (from + to) >>> 1;
+			Range left = new Range(from, mid);
+			left.fork();
+			CountResult right = new Range(mid, to).compute();
+			return left.join().merge(right);
+		}
+
+		private CountResult deal() {
+			// the seed depends only on where the range starts (see notes)
+			SplittableRandom rng = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (from + 1)));
+			CountingShoe shoe = new CountingShoe(decks, penetration, rng, systems);
+			TableRound table = new TableRound(shoe, rules);
+			PlayerStrategy[] seat = { strategy };
+			CountResult r = new CountResult(systems);
+			int[] counts = new int[systems.length];
+
+			for (long k = from; k < to; k++) {
+				// the shoe is fresh from its constructor or from the reshuffle that ended the last one.
+				// only a shoe that ran dry mid-round has cards out already, and only that one is shuffled again
+				if (shoe.remaining() < shoe.size()) shoe.shuffle();
+				long shuffles = shoe.getShuffles();
+				long rounds = 0;
+				// one shoe: rounds until the cut card comes out (or a round runs the shoe dry)
+				while (shoe.getShuffles() == shuffles) {
+					for (int s = 0; s < counts.length; s++) counts[s] = shoe.trueCount(s); // what the bet would see
+					table.play(seat, 1);
+					for (int s = 0; s < counts.length; s++) r.record(s, counts[s], table.outcome(0), table.result(0));
+					rounds++;
+					shoe.startRound();
+				}
+				r.shoeDone(rounds);
+			}
+			return r;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package mru.game.controller;
+
+/*
+  hands and results bucketed by the true count at the start of the round, for every counting system.
+  buckets go from -RANGE to +RANGE, a count past either end goes in the end bucket.
+  each worker fills its own result and they are merged at the end (like SimulationResult), so no locking.
+  amounts are in half bets, like TableRound's results
+*/
+public class CountResult {
+
+	public static final int RANGE = 6;
+	private static final int BUCKETS = 2 * RANGE + 1;
+	private static final int BAR = 30; // width of the biggest histogram bar
+
+	private final CountingSystem[] systems;
+	private final long[] hands;  // [system * BUCKETS + bucket]
+	private final long[] net;    // half bets
+	private final long[] wins;
+	private long shoes;
+	private long rounds;
+	private long elapsedNanos;
+
+	public CountResult(CountingSystem[] systems) {
+		this.systems = systems;
+		hands = new long[systems.length * BUCKETS];
+		net = new long[systems.length * BUCKETS];
+		wins = new long[systems.length * BUCKETS];
+	}
+
+	// one hand played at this true count (for system s)
+	public void record(int s, int trueCount, int outcome, int halfBets) {
+		int i = s * BUCKETS + bucket(trueCount);
+		hands[i]++;
+		net[i] += halfBets;
+		if (outcome == HeadlessRound.WIN) wins[i]++;
+	}
+
+	public void shoeDone(long rounds) {
+		shoes++;
+		this.rounds += rounds;
+	}
+
+	// adds another worker's counts into a new result
+	public CountResult merge(CountResult other) {
+		CountResult r = new CountResult(systems);
+		for (int i = 0; i < hands.length; i++) {
+			r.hands[i] = hands[i] + other.hands[i];
+			r.net[i] = net[i] + other.net[i];
+			r.wins[i] = wins[i] + other.wins[i];
+		}
+		r.shoes = shoes + other.shoes;
+		r.rounds = rounds + other.rounds;
+		r.elapsedNanos = Math.max(elapsedNanos, other.elapsedNanos);
+		return r;
+	}
+
+	private static int bucket(int trueCount) {
+		return Math.max(-RANGE, Math.min(RANGE, trueCount)) + RANGE;
+	}
+
+	public void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public long getShoes() {
+		return shoes;
+	}
+
+	public long getRounds() {
+		return rounds;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long hands(int s, int trueCount) {
+		return hands[s * BUCKETS + bucket(trueCount)];
+	}
+
+	// average net result per hand at this true count for a 1 unit bet
+	public double expectedValue(int s, int trueCount) {
+		int i = s * BUCKETS + bucket(trueCount);
+		return hands[i] == 0 ? 0 : net[i] / 2.0 / hands[i];
+	}
+
+	// lowest true count from which every bucket up has the edge (RANGE + 1 = never)
+	public int breakEven(int s) {
+		int tc = RANGE + 1;
+		for (int t = RANGE; t >= -RANGE && expectedValue(s, t) > 0; t--) tc = t;
+		return tc;
+	}
+
+	/*
+	  one compact histogram per system: a row per true count with its hands, share of all hands,
+	  win rate and EV, and a bar for the share
+	*/
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("shoes: %d  rounds: %d  (%.0f rounds/sec)%n", shoes, rounds,
+				elapsedNanos == 0 ? 0.0 : rounds / (elapsedNanos / 1e9)));
+
+		for (int s = 0; s < systems.length; s++) {
+			long total = 0;
+			long most = 1;
+			for (int b = 0; b < BUCKETS; b++) {
+				total += hands[s * BUCKETS + b];
+				most = Math.max(most, hands[s * BUCKETS + b]);
+			}
+
+			sb.append(String.format("%n%s (%s)%n", systems[s], systems[s].isBalanced() ? "balanced" : "unbalanced"));
+			sb.append("   tc       hands   share    win     ev/hand\n");
+			for (int b = 0; b < BUCKETS; b++) {
+				int i = s * BUCKETS + b;
+				int tc = b - RANGE;
+				String label = tc == -RANGE ? "<=" + tc : (tc == RANGE ? ">=+" + tc : String.format("%+d", tc));
+				double share = total == 0 ? 0 : 100.0 * hands[i] / total;
+				double win = hands[i] == 0 ? 0 : 100.0 * wins[i] / hands[i];
+				sb.append(String.format("%5s %11d  %5.1f%%  %5.1f%%  %+7.2f%%", label, hands[i], share, win,
+						100 * expectedValue(s, tc)));
+				int bar = (int) (BAR * hands[i] / most);
+				if (bar > 0) sb.append("  ");
+				for (int k = bar; k > 0; k--) sb.append('#');
+				sb.append('\n');
+			}
+			int be = breakEven(s);
+			sb.append(be > RANGE ? "player edge at no true count\n" : "player edge from true count " + String.format("%+d", be) + "\n");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,56 @@
+package mru.game.controller;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+  notes:
+  - a Shoe that keeps the running count of every card it has dealt, for several counting systems
+    at once (one int per system, bumped on every draw)
+  - a shuffle starts every count again at 0
+  - the tags are copied into one flat table (system * 11 + points) so a draw is a few array adds
+  - NOT thread-safe, same as Shoe: one per worker
+*/
+public class CountingShoe extends Shoe {
+
+	private final CountingSystem[] systems;
+	private final int[] tags;
+	private int[] running; // running count per system (null while Shoe's constructor shuffles)
+
+	public CountingShoe(int decks, double penetration, SplittableRandom rng, CountingSystem[] systems) {
+		super(decks, penetration, rng);
+		this.systems = systems;
+		tags = new int[systems.length * 11];
+		for (int s = 0; s < systems.length; s++) {
+			for (int p = 1; p <= 10; p++) tags[s * 11 + p] = systems[s].tag(p);
+		}
+		running = new int[systems.length];
+	}
+
+	public byte draw() {
+		byte c = super.draw(); // may reshuffle first, which zeroes the counts before this card is added
+		int p = Cards.points(c);
+		for (int s = 0; s < running.length; s++) running[s] += tags[s * 11 + p];
+		return c;
+	}
+
+	public void shuffle() {
+		super.shuffle();
+		if (running != null) Arrays.fill(running, 0);
+	}
+
+	public int runningCount(int system) {
+		return running[system];
+	}
+
+	// running count per deck still in the shoe, rounded to the nearest whole number
+	public int trueCount(int system) {
+		int left = remaining();
+		if (left == 0) return 0;
+		return (int) Math.round(running[system] * 52.0 / left);
+	}
+
+	public CountingSystem[] systems() {
+		return systems;
+	}
+}
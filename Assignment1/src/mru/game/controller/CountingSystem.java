@@ -0,0 +1,79 @@
+package mru.game.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+  notes:
+  - a card counting system: the tag added to the running count for every card seen
+    (tags are by blackjack points, ace = 1, all ten-value cards = 10)
+  - balanced systems add up to 0 over a full deck, so running count / decks left (the true count)
+    is centred on 0 all through the shoe. KO isn't balanced (+4 a deck): its true count drifts up
+    as the shoe is dealt, so its buckets lean positive
+  - immutable, one instance is shared by every worker
+*/
+public final class CountingSystem {
+
+	//                                                                       -   A   2   3   4   5   6   7   8   9  10
+	public static final CountingSystem HI_LO    = new CountingSystem("Hi-Lo",     "hilo",   0, -1,  1,  1,  1,  1,  1,  0,  0,  0, -1);
+	public static final CountingSystem KO       = new CountingSystem("KO",        "ko",     0, -1,  1,  1,  1,  1,  1,  1,  0,  0, -1);
+	public static final CountingSystem HI_OPT_1 = new CountingSystem("Hi-Opt I",  "hiopt1", 0,  0,  0,  1,  1,  1,  1,  0,  0,  0, -1);
+	public static final CountingSystem HI_OPT_2 = new CountingSystem("Hi-Opt II", "hiopt2", 0,  0,  1,  1,  2,  2,  1,  1,  0,  0, -2);
+	public static final CountingSystem OMEGA_2  = new CountingSystem("Omega II",  "omega2", 0,  0,  1,  1,  2,  2,  2,  1,  0, -1, -2);
+	public static final CountingSystem ZEN      = new CountingSystem("Zen",       "zen",    0, -1,  1,  1,  2,  2,  2,  1,  0,  0, -2);
+
+	private static final CountingSystem[] ALL = { HI_LO, KO, HI_OPT_1, HI_OPT_2, OMEGA_2, ZEN };
+
+	private final String name;
+	private final String key; // name as typed on the command line
+	private final int[] tags; // points 1..10 -> tag (index 0 unused)
+
+	private CountingSystem(String name, String key, int... tags) {
+		this.name = name;
+		this.key = key;
+		this.tags = tags;
+	}
+
+	/*
+	  reads a list like "hilo,ko,zen": hilo, ko, hiopt1, hiopt2, omega2, zen, or "all"
+	*/
+	public static CountingSystem[] parse(String s) {
+		s = s.trim().toLowerCase();
+		if (s.equals("all") || s.length() == 0) return ALL.clone();
+
+		List<CountingSystem> out = new ArrayList<CountingSystem>();
+		for (String n : s.split(",")) {
+			CountingSystem found = null;
+			for (CountingSystem c : ALL) {
+				if (c.key.equals(n.trim())) found = c;
+			}
+			if (found == null) throw new IllegalArgumentException("unknown counting system: " + n);
+			if (!out.contains(found)) out.add(found);
+		}
+		return out.toArray(new CountingSystem[0]);
+	}
+
+	// the tag for a card's blackjack points (1 = ace, 10 = ten-value)
+	public int tag(int points) {
+		return tags[points];
+	}
+
+	// sum of the tags over one deck (0 = balanced)
+	public int perDeck() {
+		int sum = 0;
+		for (int p = 1; p <= 9; p++) sum += 4 * tags[p];
+		return sum + 16 * tags[10];
+	}
+
+	public boolean isBalanced() {
+		return perDeck() == 0;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String toString() {
+		return name;
+	}
+}
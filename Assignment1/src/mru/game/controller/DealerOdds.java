@@ -0,0 +1,116 @@
+package mru.game.controller;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+/*
+  notes:
+  - exact odds of the dealer finishing on 17, 18, 19, 20, 21 or busting, for a given up card
+    and the cards still left in the shoe (dealer rule is the same as playRound: draw while value() < 17)
+  - it walks every order the dealer can draw in, without sampling; each step weights a card value by
+    how many of it are left, then takes it out of the shoe for the next step
+  - the same leftover shoe is reached by many draw orders (2 then 3 = 3 then 2), so results are
+    memoized on a long key that packs how many of each value the dealer has taken so far
+    (5 bits per value; the up card and the key together fix the dealer's total, so that's the whole state)
+  - each up card is independent, so all() works them out in parallel, each with its own counts and memo
+  - counts[v] = cards of point value v still in the shoe (v = 1 for aces, 10 for tens and face cards)
+*/
+public class DealerOdds {
+
+	// slots of an outcome array
+	public static final int BUST = 5; // slots 0..4 are totals 17..21
+
+	// finished hands (shared, never written): one per final total, plus bust
+	private static final double[][] DONE = new double[6][6];
+
+	static {
+		for (int k = 0; k < 6; k++) DONE[k][k] = 1;
+	}
+
+	private final int[] counts; // never changed, every calculation works on its own copy
+
+	public DealerOdds(int[] counts) {
+		if (counts.length != 11) throw new IllegalArgumentException("counts must have slots 0..10");
+		this.counts = counts.clone();
+	}
+
+	// counts for a fresh shoe of the given number of decks
+	public static int[] shoeCounts(int decks) {
+		int[] c = new int[11];
+		for (int v = 1; v <= 9; v++) c[v] = 4 * decks;
+		c[10] = 16 * decks;
+		return c;
+	}
+
+	/*
+	  outcome odds (slots 17..21, BUST) when the dealer shows the given up card (point value 1..10).
+	  the up card is taken out of the shoe first; the hole card is just the dealer's first draw
+	  (playRound never peeks for blackjack)
+	*/
+	public double[] outcomes(int up) {
+		int[] left = counts.clone();
+		if (left[up] > 0) left[up]--; // the up card came from this shoe
+		return new Walk(left).from(0, up, up == 1);
+	}
+
+	// outcomes() for every up card 1..10 (index 0 unused), one up card per task
+	public double[][] all() {
+		double[][] res = new double[11][];
+		IntStream.rangeClosed(1, 10).parallel().forEach(up -> res[up] = outcomes(up));
+		return res;
+	}
+
+	// one up card's calculation: the working counts and the memo belong to one thread
+	private static final class Walk {
+		private final int[] left;
+		private int cardsLeft;
+		private final HashMap<Long, double[]> memo = new HashMap<Long, double[]>();
+
+		Walk(int[] left) {
+			this.left = left;
+			for (int v = 1; v <= 10; v++) cardsLeft += left[v];
+		}
+
+		// key = cards the dealer has drawn, 5 bits per value (at most 26 points are ever drawn)
+		double[] from(long key, int hard, boolean ace) {
+			int total = (ace && hard <= 11) ? hard + 10 : hard;
+			if (hard > 21) return DONE[BUST];
+			if (total >= 17) return DONE[total - 17];
+
+			double[] known = memo.get(key);
+			if (known != null) return known;
+
+			double[] res = new double[6];
+
+			if (cardsLeft == 0) {
+				// shoe ran dry before 17: treat as a bust so the odds still add up (can't happen with real shoes)
+				res[BUST] = 1;
+			} else {
+				for (int v = 1; v <= 10; v++) {
+					if (left[v] == 0) continue;
+					double p = (double) left[v] / cardsLeft;
+					left[v]--;
+					cardsLeft--;
+					double[] next = from(key + (1L << (5 * (v - 1))), hard + v, ace || v == 1);
+					left[v]++;
+					cardsLeft++;
+					for (int k = 0; k < 6; k++) res[k] += p * next[k];
+				}
+			}
+			memo.put(key, res);
+			return res;
+		}
+	}
+
+	// one row per up card: 17, 18, 19, 20, 21, bust as percentages
+	public static void printTable(PrintStream out, double[][] odds) {
+		out.println("UP       17      18      19      20      21    BUST");
+		for (int up = 2; up <= 11; up++) {
+			double[] o = odds[up == 11 ? 1 : up];
+			StringBuilder line = new StringBuilder(up == 11 ? " A" : String.format("%2d", up));
+			for (int k = 0; k < 6; k++) line.append(String.format("%8.3f", o[k] * 100));
+			out.println(line);
+		}
+	}
+}
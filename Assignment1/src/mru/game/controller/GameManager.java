@@ -1,14 +1,26 @@
 package mru.game.controller;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import mru.game.model.IndexedPlayerRepository;
+import mru.game.model.MappedPlayerRepository;
+import mru.game.model.NameIndex;
 import mru.game.model.Player;
+import mru.game.model.PlayerRepository;
 import mru.game.view.AppMenu;
+import mru.game.view.TableRenderer;
 
 /*
   this class is the main controller of the entire program.
@@ -19,25 +31,259 @@ import mru.game.view.AppMenu;
 */
 public class GameManager {
 
-	private static final String DB_PATH = "res/CasinoInfo.txt"; 
+	private static final String RES_DIR = "res"; // default folder for all the data files
+
+	private final String resDir;
+	private final String dbPath;
 	// path to the player data file (res/CasinoInfo.txt)
 	// each line contains: name,balance,wins
 
-	private ArrayList<Player> players;  // stores all players currently in memory
-	private CardDeck sharedDeck;        // shared deck of cards used for all blackjack rounds
+	private final String binPath;
+	// binary player database (made by "AppDriver convert"); used instead of the text file when it exists
+
+	private final String shardDir;
+	// folder of player shard files (made by "AppDriver shard <n>"); used instead of the text file when it exists
+
+	private final String journalPath;
+	// append-only log of every round since the last snapshot (same name,balance,wins lines)
+
+	private final String roundLogPath;
+	// binary log of every round played (see RoundLog), replayed with "AppDriver replay"
+
+	private final String metricsPath;
+	// latest metrics snapshot (see GameMetrics), rewritten every METRICS_PERIOD_SECONDS
+
+	private static final long COMPACT_PERIOD_SECONDS = 30;      // how often the journal size is checked
+	private static final long COMPACT_MIN_BYTES = 1024 * 1024; // journal size that triggers a new snapshot
+
+	private static final int WRITE_BEHIND_BATCH = 256;  // dirty players that trigger a journal write
+	private static final long WRITE_BEHIND_DELAY_MS = 50; // longest a change waits in memory (the crash window)
+
+	private static final long METRICS_PERIOD_SECONDS = 10; // how often res/metrics.txt is rewritten
+
+	private static final int STARTING_BALANCE = 100; // balance given to brand new players
+	private static final int TABLE_DECKS = 6;        // shoe size at a multi-seat table
+
+	private static final int SEARCH_PAGE = 10;      // names per page in the prefix search
+	private static final int SUGGEST_EDITS = 2;     // typos allowed in "did you mean"
+	private static final int SUGGEST_LIMIT = 5;
+
+	private PlayerRepository players;   // stores all players currently in memory (indexed by name)
+	private MappedPlayerRepository binaryDb; // same object as players when the binary database is used, else null
+	private ShardedPlayerRepository shardedDb; // same object as players when the shard files are used, else null
+	private ConcurrentShoe sharedShoe;  // shoe used for all console blackjack rounds (every session gets a handle)
+	private PlayerJournal journal;      // per-round durability (replayed on startup)
+	private WriteBehindWriter writeBehind; // batches round results into the journal off the game thread
+	private RoundLog roundLog;          // audit log of every round (null if it couldn't be opened)
+	private NameIndex nameIndex;        // prefix / fuzzy name search (built on the first search, then kept up to date)
+
+	private final Object saveLock = new Object();              // serializes snapshot writes
+	private final SnapshotWriter snapshotWriter = new SnapshotWriter();
+	private ExecutorService saver;                             // savePlayersInBackground thread (made on first use)
+	private CompletableFuture<Boolean> queuedSave;             // background save not started yet
+
+	// folded name -> lease of every player currently checked out (server sessions run at the same time)
+	private ConcurrentHashMap<String, PlayerLease> leases = new ConcurrentHashMap<String, PlayerLease>();
 
 	public GameManager() {
+		this(RES_DIR);
+	}
+
+	// keeps the data files in another folder (benchmarks use a scratch folder so they can't touch res/)
+	public GameManager(String resDir) {
+		this.resDir = resDir;
+		dbPath = resDir + "/CasinoInfo.txt";
+		binPath = resDir + "/CasinoInfo.bin";
+		shardDir = resDir + "/shards";
+		journalPath = resDir + "/CasinoInfo.journal";
+		metricsPath = resDir + "/metrics.txt";
+		roundLogPath = resDir + "/rounds.log";
+
 		ensureResAndDb();   // ensure the res folder and data file exist
-		players = new ArrayList<Player>(); // starts with an empty list
-		sharedDeck = new CardDeck();       // create and shuffle the card deck
+		players = new IndexedPlayerRepository(); // starts with an empty store
+		openBinaryDb();                     // switches to the binary database if there is one
+		if (binaryDb == null) openShardedDb(); // ... or to the shard files
+		sharedShoe = new ConcurrentShoe(); // one deck like before, safe to deal from several sessions / seats
+		journal = new PlayerJournal(journalPath);
+		writeBehind = new WriteBehindWriter(journal, WRITE_BEHIND_BATCH, WRITE_BEHIND_DELAY_MS);
 	}
 
 	// starts the main program loop
 	public void launchApplication() {
 		loadPlayers();  // load saved players from the file first
+		openJournal();  // then apply the rounds played since that file was written
+		openRoundLog();
+		startMetrics();
 
 		Scanner input = new Scanner(System.in);
-		AppMenu menu = new AppMenu(input); // use the same Scanner to avoid input issues
+		runSession(input, System.out, TableRenderer.CONSOLE, sessionShoe());
+
+		// every round is already in (or on its way to) the journal, so exiting only has to drain and close it
+		// (the background compaction folds it into the main file)
+		System.out.println("Saving...");
+		closeJournal();
+		closeRoundLog();
+		stopMetrics();
+		System.out.println("Done! Please visit us again!");
+	}
+
+	/*
+	  multi-seat table on the console (see TableRound): every name is a person at the table
+	  (asked for a bet and hit/stand in turn, hot-seat), the other seats are basic strategy bots
+	  betting the table minimum (they aren't stored). a bet of 0 from anyone closes the table.
+	  rules = what the table offers on top of hit/stand (double, split, insurance, 3:2)
+	*/
+	public void launchTable(List<String> names, int bots, TableRules rules) {
+		int seats = Math.min(TableRound.MAX_SEATS, names.size() + bots);
+		int people = Math.min(names.size(), seats);
+		if (seats == 0) {
+			System.out.println("[error] a table needs at least one seat");
+			return;
+		}
+
+		loadPlayers();
+		openJournal();
+
+		Scanner input = new Scanner(System.in);
+		PrintStream out = System.out;
+		AppMenu menu = new AppMenu(input, out);
+		TableRound table = new TableRound(new ConcurrentShoe(TABLE_DECKS, 0.75, System.nanoTime()), rules);
+		PlayerStrategy bot = BasicStrategy.load(BasicStrategy.cacheFile(resDir, TABLE_DECKS), TABLE_DECKS);
+
+		Player[] atTable = new Player[seats];
+		PlayerStrategy[] strategies = new PlayerStrategy[seats];
+		int[] bets = new int[seats];
+		int[] deltas = new int[seats];
+		PlayerLease[] held = new PlayerLease[people];
+		try {
+			for (int i = 0; i < people; i++) {
+				String name = names.get(i);
+				if (!nameFits(name)) {
+					out.println(name + ": that name is too long (at most " + MappedPlayerRepository.NAME_MAX + " bytes).\n");
+					return;
+				}
+				try {
+					held[i] = checkout(name);
+				} catch (IllegalStateException e) {
+					out.println("[error] can't add " + name + ": " + e.getMessage() + "\n");
+					return;
+				}
+				if (held[i] == null) {
+					out.println(name + " is already playing at another table.\n");
+					return;
+				}
+				atTable[i] = held[i].getPlayer();
+				menu.showWelcome(atTable[i].getName(), atTable[i].getBalance(), held[i].isNew());
+
+				ConsoleSeat seat = new ConsoleSeat(input, out, atTable[i].getName());
+				seat.sitAt(table, i);
+				strategies[i] = seat;
+			}
+			for (int i = people; i < seats; i++) {
+				atTable[i] = new Player("Bot " + (i - people + 1), Integer.MAX_VALUE / 2, 0);
+				strategies[i] = bot;
+				bets[i] = 2;
+			}
+
+			out.println("table rules: " + rules + "\n");
+			boolean again = true;
+			while (again) {
+				for (int i = 0; i < people && again; i++) {
+					if (atTable[i].getBalance() < 2) {
+						out.println(atTable[i].getName() + " can't cover the minimum bet. closing the table.\n");
+						again = false;
+						break;
+					}
+					out.println(atTable[i].getName() + ":");
+					bets[i] = menu.promptBet(atTable[i].getBalance());
+					if (bets[i] == 0) again = false;
+				}
+				if (!again) break;
+
+				table.playRound(atTable, bets, strategies, seats, deltas);
+				for (int i = 0; i < people; i++) writeBehind.markDirty(atTable[i]);
+				printTable(out, table, atTable, deltas);
+
+				out.print("Do you want to continue(y/n)? ");
+				String ans = input.nextLine().trim();
+				again = ans.length() > 0 && Character.toUpperCase(ans.charAt(0)) == 'Y';
+			}
+		} finally {
+			for (int i = 0; i < people; i++) {
+				if (held[i] != null) held[i].close();
+			}
+			System.out.println("Saving...");
+			closeJournal();
+			System.out.println("Done! Please visit us again!");
+		}
+	}
+
+	// the end of a table round: dealer's hand, then every seat's total and result
+	private static void printTable(PrintStream out, TableRound table, Player[] atTable, int[] deltas) {
+		Hand dealer = table.dealerHand();
+		StringBuilder sb = new StringBuilder("dealer:");
+		for (int i = 0; i < dealer.size(); i++) sb.append("  ").append(Cards.label(dealer.get(i)));
+		sb.append("  (").append(dealer.isBust() ? "bust" : Integer.toString(dealer.value())).append(")");
+		out.println(sb + "\n");
+
+		for (int i = 0; i < table.seats(); i++) {
+			sb.setLength(0);
+			sb.append("seat ").append(i + 1).append("  ").append(atTable[i].getName()).append(":");
+			for (int h = 0; h < table.handCount(i); h++) {
+				Hand hand = table.hand(i, h);
+				if (h > 0) sb.append("  |");
+				for (int k = 0; k < hand.size(); k++) sb.append("  ").append(Cards.label(hand.get(k)));
+				sb.append("  (").append(hand.isBust() ? "bust" : Integer.toString(hand.value()));
+				if (table.isDoubled(i, h)) sb.append(", doubled");
+				sb.append(")");
+			}
+			if (table.isInsured(i)) sb.append("  insured");
+			sb.append("  ");
+			sb.append(deltas[i] > 0 ? "won " + deltas[i] + "$" : (deltas[i] < 0 ? "lost " + -deltas[i] + "$" : "push (tie)"));
+			out.println(sb);
+		}
+		out.println();
+	}
+
+	/*
+	  server mode: same menus, but every TCP connection gets its own session
+	  (see GameServer). runs until the process is stopped
+	*/
+	public void launchServer(int port) {
+		loadPlayers();
+		openJournal();
+		openRoundLog();
+		startMetrics();
+
+		// the journal already has every round; closing it just flushes the last batch
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			closeJournal();
+			closeRoundLog();
+			stopMetrics();
+			System.out.println(writeBehind.stats());
+		}));
+
+		try {
+			new GameServer(this, port).run();
+		} catch (IOException e) {
+			System.out.println("[error] server stopped: " + e.getMessage());
+		}
+	}
+
+	// a handle on the shared shoe for one session (its getShuffles only counts that session's reshuffles)
+	public CardSource sessionShoe() {
+		return sharedShoe.session();
+	}
+
+	/*
+	  one menu session until the user picks (E)xit.
+	  the console runs one of these, the server runs one per connection (all dealing from the shared shoe).
+	  input and out are the session's own streams, so nothing here touches System.in/out.
+	  charset is what out encodes with (the tables are written to it as bytes)
+	*/
+	public void runSession(Scanner input, PrintStream out, Charset charset, CardSource shoe) {
+		AppMenu menu = new AppMenu(input, out); // use the same Scanner to avoid input issues
+		TableRenderer renderer = new TableRenderer(charset); // builds the tables in one reusable buffer
 
 		boolean running = true; // controls whether the program keeps running
 		while (running) {
@@ -47,12 +293,12 @@ public class GameManager {
 			switch (choice) {
 				case 'P': 
 					// start a blackjack game
-					playFlow(input, menu); 
+					playFlow(input, menu, out, renderer, shoe); 
 					break;
 
 				case 'S': 
 					// view or search for players
-					searchFlow(input, menu); 
+					searchFlow(input, menu, out, renderer); 
 					break;
 
 				case 'E': 
@@ -62,43 +308,66 @@ public class GameManager {
 
 				default: 
 					// input validation - if user doesnt pick any of the cases
-					System.out.println("invalid choice.\n"); 
+					out.println("invalid choice.\n"); 
 			}
 		}
 
-		// save all player data before exiting
-		savePlayers(); 
-		System.out.println("Saving...");
-		System.out.println("Done! Please visit us again!");
 	}
 
 	// handles the blackjack playing process
-	private void playFlow(Scanner input, AppMenu menu) {
+	private void playFlow(Scanner input, AppMenu menu, PrintStream out, TableRenderer renderer, CardSource shoe) {
 		String name = menu.promptName(); // asks for player name
 
 		if (name.length() == 0) { 
 			// prevents blank input/empty names
-			System.out.println("name cannot be empty.\n"); 
+			out.println("name cannot be empty.\n"); 
 			return; 
 		}
+		if (!nameFits(name)) {
+			out.println("that name is too long (at most " + MappedPlayerRepository.NAME_MAX + " bytes).\n");
+			return;
+		}
 
-		// determine if this is a new or returning player
-		boolean isNew = (findByName(name) == null);
+		// only one session at a time may play as the same player
+		// (checking out gets the existing player or creates a new one with $100 starting balance)
+		PlayerLease lease;
+		try {
+			lease = checkout(name);
+		} catch (IllegalStateException e) {
+			out.println("[error] can't add a new player: " + e.getMessage() + "\n"); // e.g. the database file is full
+			return;
+		}
+		if (lease == null) {
+			out.println("that player is already playing at another table.\n");
+			return;
+		}
+		if (GameMetrics.ENABLED) GameMetrics.GLOBAL.sessionStarted();
+		try {
+			playSeated(input, menu, out, renderer, shoe, lease);
+		} finally {
+			lease.close();
+			if (GameMetrics.ENABLED) GameMetrics.GLOBAL.sessionEnded();
+		}
+	}
 
-		// get existing player or create a new one with $100 starting balance
-		Player p = getOrCreatePlayer(name);
+	// the rest of playFlow, once this session holds the player's lease
+	private void playSeated(Scanner input, AppMenu menu, PrintStream out, TableRenderer renderer, CardSource shoe,
+			PlayerLease lease) {
+		Player p = lease.getPlayer();
+		boolean isNew = lease.isNew();
 
 		// displays welcome message and shows current balance
 		menu.showWelcome(p.getName(), p.getBalance(), isNew);
 
 		// prevent play if the balance is zero
 		if (p.getBalance() == 0) { 
-			System.out.println("your balance is $0. returning to main menu.\n"); 
+			out.println("your balance is $0. returning to main menu.\n"); 
 			return; 
 		}
 
-		// create a blackjack game using the shared deck
-		BlackjackGame game = new BlackjackGame(sharedDeck);
+		// create a blackjack game using this session's shoe
+		BlackjackGame game = new BlackjackGame(shoe, out, renderer);
+		game.setRoundLog(roundLog);
 
 		boolean again = true;
 		while (again) {
@@ -108,19 +377,20 @@ public class GameManager {
 
 			// play one round (this method updates player stats internally)
 			game.playRound(input, bet, p);
+			writeBehind.markDirty(p); // queued, written with other rounds' changes within WRITE_BEHIND_DELAY_MS
 
 			// spacing for readability
-			System.out.println();
+			out.println();
 
 			// ask if the player wants to continue playing
-			System.out.print("Do you want to continue(y/n)? ");
+			out.print("Do you want to continue(y/n)? ");
 			String ans = input.nextLine().trim();
 			again = ans.length() > 0 && Character.toUpperCase(ans.charAt(0)) == 'Y';
 		}
 	}
 
 	// handles searching or viewing player information
-	private void searchFlow(Scanner input, AppMenu menu) {
+	private void searchFlow(Scanner input, AppMenu menu, PrintStream out, TableRenderer renderer) {
 		boolean back = false;
 
 		while (!back) {
@@ -132,26 +402,9 @@ public class GameManager {
 					ArrayList<Player> tops = getTopPlayers();
 
 					if (tops.isEmpty()) {
-						System.out.println("no players in database.");
+						out.println("no players in database.");
 					} else {
-						System.out.println("              - TOP PLAYERS -");
-						System.out.println("+====================+=================+");
-						System.out.println("| NAME               | # WINS          |");
-						System.out.println("+====================+=================+");
-
-						for (int i = 0; i < tops.size(); i++) {
-							Player tp = tops.get(i);
-
-							String nameCol = tp.getName();
-							String winsCol = String.valueOf(tp.getWins());
-
-							// table alignment
-							while (nameCol.length() < 18) nameCol += " ";
-							while (winsCol.length() < 7) winsCol += " ";
-
-							System.out.println("| " + nameCol + " | " + winsCol + "         |");
-							System.out.println("+--------------------------------------+");
-						}
+						renderer.topPlayers(out, tops);
 					}
 
 					menu.pauseEnter(); // pauses before going back
@@ -164,26 +417,35 @@ public class GameManager {
 					Player p = findByName(name);
 
 					if (p == null) {
-						System.out.println("player not found.");
+						out.println("player not found.");
+						List<Player> close = suggestNames(name, SUGGEST_EDITS, SUGGEST_LIMIT);
+						if (!close.isEmpty()) {
+							out.println("did you mean:\n");
+							renderer.playerList(out, close);
+						}
 					} else {
-						// inline table for one player
-						System.out.println("                       - PLAYER INFO -");
-						System.out.println("+====================+=================+=================+");
-						System.out.println("| NAME               | # WINS          | BALANCE         |");
-						System.out.println("+====================+=================+=================+");
-
-						String nameCol = p.getName();
-						String winsCol = String.valueOf(p.getWins());
-						String balCol = p.getBalance() + "  $";
-
-						// add spaces to align columns
-						while (nameCol.length() < 18) nameCol += " ";
-						while (winsCol.length() < 7) winsCol += " ";
-						while (balCol.length() < 13) balCol += " ";
-
-						System.out.println("| " + nameCol + " | " + winsCol + "         | " + balCol + "   |");
-						System.out.println("+--------------------------------------------------------+");
-						System.out.println();
+						renderer.playerInfo(out, p); // one-player table
+					}
+
+					menu.pauseEnter();
+					break;
+				}
+
+				case 'F': {
+					// every player whose name starts with what was typed, a page at a time
+					String prefix = menu.promptSearchPrefix();
+					int total = countByPrefix(prefix);
+
+					if (total == 0) {
+						out.println("no names start with \"" + prefix + "\".");
+						menu.pauseEnter();
+						break;
+					}
+					out.println(total + " player(s) found.\n");
+					for (int offset = 0; offset < total; offset += SEARCH_PAGE) {
+						renderer.playerList(out, findByPrefix(prefix, offset, SEARCH_PAGE));
+						if (offset + SEARCH_PAGE >= total) break;
+						if (!menu.promptNextPage(offset / SEARCH_PAGE + 1, (total + SEARCH_PAGE - 1) / SEARCH_PAGE)) break;
 					}
 
 					menu.pauseEnter();
@@ -196,7 +458,7 @@ public class GameManager {
 					break;
 
 				default: 
-					System.out.println("invalid choice.\n");
+					out.println("invalid choice.\n");
 			}
 		}
 	}
@@ -204,108 +466,424 @@ public class GameManager {
 	// ensures both the folder and data file actually exist
 	private void ensureResAndDb() {
 		try {
-			File resDir = new File("res");
-			if (!resDir.exists()) resDir.mkdirs();
+			File dir = new File(resDir);
+			if (!dir.exists()) dir.mkdirs();
 
-			File db = new File(DB_PATH);
+			File db = new File(dbPath);
 			if (!db.exists()) db.createNewFile();
 		} catch (IOException e) {
 			System.out.println("[error] can't init resources: " + e.getMessage());
 		}
 	}
 
-	// loads players from text file into the ArrayList
-	public void loadPlayers() {
-		players.clear(); // clear any old data first
-		File f = new File(DB_PATH);
-		if (!f.exists()) return;
+	// replays the journal on top of the loaded players, then starts appending to it
+	private void openJournal() {
+		int replayed = journal.replay(players);
+		if (replayed > 0) System.out.println("[info] recovered " + replayed + " round(s) from the journal");
 
-		Scanner sc = null;
 		try {
-			sc = new Scanner(f);
-			while (sc.hasNextLine()) {
-				String line = sc.nextLine().trim();
-				if (line.length() == 0) continue; // skip empty lines
-
-				String[] parts = line.split(",");
-				if (parts.length == 3) {
-					String name = parts[0].trim();
-					int bal = safeInt(parts[1].trim(), 0);
-					int wins = safeInt(parts[2].trim(), 0);
-					players.add(new Player(name, bal, wins));
+			journal.open();
+			journal.startCompaction(COMPACT_PERIOD_SECONDS, COMPACT_MIN_BYTES, this::savePlayers);
+			writeBehind.start();
+		} catch (IOException e) {
+			System.out.println("[error] can't open journal: " + e.getMessage());
+		}
+	}
+
+	// writes the queued changes, then closes the journal (order matters: the queue drains into it)
+	private void closeJournal() {
+		writeBehind.close();
+		journal.close();
+	}
+
+	// JMX bean plus the periodic snapshot file (nothing at all when metrics are off)
+	private void startMetrics() {
+		if (!GameMetrics.ENABLED) return;
+		GameMetrics.GLOBAL.watch(writeBehind);
+		GameMetrics.GLOBAL.register();
+		GameMetrics.GLOBAL.startSnapshots(metricsPath, METRICS_PERIOD_SECONDS);
+	}
+
+	private void stopMetrics() {
+		if (GameMetrics.ENABLED) GameMetrics.GLOBAL.stopSnapshots(metricsPath);
+	}
+
+	// the round log is only for auditing, so the game runs without it if it can't be opened
+	private void openRoundLog() {
+		try {
+			roundLog = new RoundLog(roundLogPath);
+		} catch (IOException e) {
+			System.out.println("[warn] rounds won't be logged: " + e.getMessage());
+		}
+	}
+
+	private void closeRoundLog() {
+		if (roundLog != null) roundLog.close();
+	}
+
+	// write-behind queue depth, batch counts and flush latency
+	public String getWriteBehindStats() {
+		return writeBehind.stats();
+	}
+
+	// uses res/CasinoInfo.bin when it exists (players are then read lazily, nothing to load up front)
+	private void openBinaryDb() {
+		if (!new File(binPath).exists()) return;
+		try {
+			binaryDb = new MappedPlayerRepository(binPath);
+			players = binaryDb;
+		} catch (IOException e) {
+			System.out.println("[error] can't open " + binPath + ", using " + dbPath + ": " + e.getMessage());
+		}
+	}
+
+	/*
+	  offline tournament: every stored player plays the given number of automated rounds on a
+	  fork-join pool (see Tournament), then all balances/wins are updated at once and saved.
+	  every player is checked out for the whole tournament; a player another session is playing
+	  sits it out. threads = 0 uses the common pool
+	*/
+	public void runTournament(int rounds, int bet, PlayerStrategy strategy, int decks, double penetration,
+			long seed, int threads) {
+		loadPlayers();
+		journal.replay(players); // start from the latest values
+
+		List<Player> stored;
+		synchronized (this) {
+			stored = new ArrayList<Player>(players.all());
+		}
+
+		// take every player's lease so no session plays them while their results are worked out
+		ArrayList<Player> all = new ArrayList<Player>(stored.size());
+		ArrayList<PlayerLease> held = new ArrayList<PlayerLease>(stored.size());
+		int busy = 0;
+		SimulationResult r;
+		try {
+			for (int i = 0; i < stored.size(); i++) {
+				PlayerLease lease;
+				try {
+					lease = checkout(stored.get(i).getName());
+				} catch (RuntimeException e) {
+					// one player that can't be checked out shouldn't stop everyone else's tournament
+					System.out.println("[warn] " + stored.get(i).getName() + " sits this one out: " + e.getMessage());
+					continue;
 				}
+				if (lease == null) { // playing somewhere else right now
+					busy++;
+					continue;
+				}
+				held.add(lease);
+				all.add(lease.getPlayer());
+			}
+			if (busy > 0) {
+				System.out.println("[info] " + busy + " players are checked out and sit this one out");
+			}
+
+			ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+			Tournament t = new Tournament(rounds, bet, strategy, decks, penetration, seed);
+			r = t.run(all, pool);
+			if (threads > 0) pool.shutdown();
+
+			synchronized (this) {
+				t.apply(all); // one bulk update, the leaderboard follows through the listeners
 			}
-		} catch (Exception e) {
-			System.out.println("[warn] load failed: " + e.getMessage());
 		} finally {
-			if (sc != null) sc.close();
+			for (int i = 0; i < held.size(); i++) held.get(i).close();
+		}
+
+		// fold the replayed journal and the new results into one fresh snapshot
+		try {
+			journal.open();
+			journal.compact(this::savePlayers);
+		} catch (IOException e) {
+			System.out.println("[error] can't open journal: " + e.getMessage());
+		}
+		journal.close();
+
+		System.out.println(all.size() + " players x " + rounds + " rounds at $" + bet + " (" + strategy + ")");
+		System.out.println(r);
+		List<Player> top = players.getLeaderboard().topByWins(5);
+		for (int i = 0; i < top.size(); i++) {
+			Player p = top.get(i);
+			System.out.println((i + 1) + ". " + p.getName() + "  wins: " + p.getWins() + "  balance: $" + p.getBalance());
+		}
+	}
+
+	// uses res/shards/ when it holds shard files (each shard is loaded and saved on its own)
+	private void openShardedDb() {
+		int n = ShardedPlayerRepository.countShards(new File(shardDir));
+		if (n == 0) return;
+		shardedDb = new ShardedPlayerRepository(new File(shardDir), n);
+		players = shardedDb;
+	}
+
+	/*
+	  one-shot split of the text file (plus anything still in the journal) into n shard files.
+	  after this the game runs on res/shards/
+	*/
+	public void convertToShards(int n) {
+		if (binaryDb != null || shardedDb != null) {
+			System.out.println("already using " + (binaryDb != null ? binPath : shardDir) + ".");
+			return;
+		}
+		if (n < 1) {
+			System.out.println("[error] need at least one shard.");
+			return;
+		}
+
+		loadPlayers();
+		journal.replay(players);
+
+		File dir = new File(shardDir);
+		dir.mkdirs();
+		ShardedPlayerRepository sharded = new ShardedPlayerRepository(dir, n);
+		List<Player> all = players.all();
+		for (int i = 0; i < all.size(); i++) {
+			Player p = all.get(i);
+			sharded.add(new Player(p.getName(), p.getBalance(), p.getWins()));
+		}
+		if (sharded.saveDirty()) {
+			System.out.println("split " + sharded.size() + " players into " + n + " shards in " + shardDir);
+		} else {
+			System.out.println("[error] conversion failed, some shard files weren't written");
 		}
 	}
 
-	// saves all player data to the text file
-	public void savePlayers() {
-		PrintWriter out = null;
+	/*
+	  one-shot conversion of the text file (plus anything still in the journal)
+	  into a fresh binary database. after this the game runs on CasinoInfo.bin
+	*/
+	public void convertToBinary() {
+		if (binaryDb != null) {
+			System.out.println(binPath + " already exists.");
+			return;
+		}
+
+		loadPlayers();
+		journal.replay(players);
+
 		try {
-			out = new PrintWriter(new FileWriter(DB_PATH, false)); // overwrite existing file
-			for (int i = 0; i < players.size(); i++) {
-				Player p = players.get(i);
-				out.println(p.getName() + "," + p.getBalance() + "," + p.getWins());
+			MappedPlayerRepository bin = new MappedPlayerRepository(binPath);
+			List<Player> all = players.all();
+			for (int i = 0; i < all.size(); i++) {
+				Player p = all.get(i);
+				if (!MappedPlayerRepository.fits(p.getName())) {
+					System.out.println("[warn] not converted, name too long: " + p.getName());
+					continue;
+				}
+				long s = p.snapshot();
+				bin.add(new Player(p.getName(), Player.balanceOf(s), Player.winsOf(s)));
 			}
+			bin.close();
+			System.out.println("converted " + bin.size() + " players to " + binPath);
 		} catch (IOException e) {
-			System.out.println("[error] save failed: " + e.getMessage());
-		} finally {
-			if (out != null) out.close();
+			System.out.println("[error] conversion failed: " + e.getMessage());
 		}
 	}
 
-	// finds a player by name or creates a new one if not found
-	public Player getOrCreatePlayer(String name) {
-		Player p = findByName(name);
-		if (p != null) {
-			return p;
+	// loads players from text file into the player store (streaming byte parser, see PlayerFileLoader)
+	public synchronized void loadPlayers() {
+		if (binaryDb != null) return; // binary records are decoded on demand instead
+
+		if (shardedDb != null) {
+			long start = System.nanoTime();
+			shardedDb.loadAll(); // every shard file at the same time (each warns about its own bad rows)
+			if (GameMetrics.ENABLED) {
+				GameMetrics.GLOBAL.loaded(System.nanoTime() - start, shardedDb.size(), shardedDb.skippedRows());
+			}
+			return;
 		}
 
-		Player np = new Player(name, 100, 0); // default new player with $100 and 0 wins
-		players.add(np);
-		return np;
+		players.clear(); // clear any old data first
+		nameIndex = null;
+		File f = new File(dbPath);
+		if (!f.exists()) return;
+
+		long start = System.nanoTime();
+		PlayerFileLoader loader = new PlayerFileLoader();
+		try {
+			ArrayList<Player> loaded = loader.load(dbPath);
+			for (int i = 0; i < loaded.size(); i++) {
+				players.add(loaded.get(i));
+			}
+		} catch (IOException e) {
+			System.out.println("[warn] load failed: " + e.getMessage());
+		}
+		if (loader.getSkipped() > 0) System.out.println("[warn] " + loader.getSkipped() + " bad rows skipped in " + dbPath);
+		if (GameMetrics.ENABLED) {
+			GameMetrics.GLOBAL.loaded(System.nanoTime() - start, loader.getRows(), loader.getSkipped());
+		}
 	}
 
-	// searches the player list for a name (case-insensitive)
-	public Player findByName(String name) {
-		for (int i = 0; i < players.size(); i++) {
-			Player p = players.get(i);
-			if (p.getName().equalsIgnoreCase(name)) return p;
+	/*
+	  saves all player data to the text file, crash-safe (temp file + fsync + atomic rename, see SnapshotWriter).
+	  the values are copied under the lock first (a private copy-on-write view), so rounds only wait for
+	  the copy, never for the disk. also called from the journal compaction thread.
+	  returns false if the file couldn't be replaced (the old one is still there and intact)
+	*/
+	public boolean savePlayers() {
+		long start = System.nanoTime();
+		if (binaryDb != null) {
+			binaryDb.flush(); // records are updated in place, they only need to reach the disk
+			if (GameMetrics.ENABLED) GameMetrics.GLOBAL.saved(System.nanoTime() - start);
+			return true;
 		}
-		return null;
+		if (shardedDb != null) {
+			// only shards with changes are rewritten, each under its own lock
+			boolean ok = shardedDb.saveDirty();
+			if (GameMetrics.ENABLED) GameMetrics.GLOBAL.saved(System.nanoTime() - start);
+			return ok;
+		}
+
+		String[] names;
+		int[] balances;
+		int[] wins;
+		int count;
+		synchronized (this) {
+			List<Player> all = players.all();
+			count = all.size();
+			names = new String[count];
+			balances = new int[count];
+			wins = new int[count];
+			for (int i = 0; i < count; i++) {
+				Player p = all.get(i);
+				long s = p.snapshot(); // balance and wins from the same update
+				names[i] = p.getName();
+				balances[i] = Player.balanceOf(s);
+				wins[i] = Player.winsOf(s);
+			}
+		}
+
+		boolean ok;
+		synchronized (saveLock) { // one save at a time (they share the writer's buffer and temp file)
+			ok = snapshotWriter.write(dbPath, names, balances, wins, count);
+		}
+		if (GameMetrics.ENABLED) GameMetrics.GLOBAL.saved(System.nanoTime() - start);
+		return ok;
 	}
 
-	// finds the player(s) with the most wins
-	public ArrayList<Player> getTopPlayers() {
-		ArrayList<Player> out = new ArrayList<Player>();
-		int maxWins = -1;
+	/*
+	  same as savePlayers, but on a background thread so the caller never waits for the disk.
+	  asking again while a save is still queued just returns that save (it will see the newer values anyway)
+	*/
+	public synchronized Future<Boolean> savePlayersInBackground() {
+		if (queuedSave != null && !queuedSave.isDone()) return queuedSave;
+		if (saver == null) {
+			saver = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "snapshot-writer");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		CompletableFuture<Boolean> f = new CompletableFuture<Boolean>();
+		queuedSave = f;
+		saver.execute(() -> {
+			synchronized (GameManager.this) {
+				if (queuedSave == f) queuedSave = null; // started: the next request queues a new save
+			}
+			f.complete(savePlayers());
+		});
+		return f;
+	}
 
-		// find the highest win count
-		for (int i = 0; i < players.size(); i++) {
-			int w = players.get(i).getWins();
-			if (w > maxWins) maxWins = w;
+	/*
+	  gives this session the player with that name (made with the starting balance if new) for as long
+	  as it holds the lease; null if another session has them checked out. close the lease when done
+	*/
+	public PlayerLease checkout(String name) {
+		String key = IndexedPlayerRepository.foldName(name);
+		PlayerLease lease = new PlayerLease(this, key);
+		if (leases.putIfAbsent(key, lease) != null) return null;
+
+		boolean isNew;
+		Player p;
+		try {
+			synchronized (this) {
+				isNew = findByName(name) == null;
+				p = getOrCreatePlayer(name);
+			}
+		} catch (RuntimeException e) {
+			leases.remove(key, lease); // the name isn't held if it couldn't be played
+			throw e;
 		}
+		lease.grant(p, isNew);
+		if (isNew) writeBehind.markDirty(p); // so a new player survives a crash too
+		return lease;
+	}
+
+	// called by PlayerLease.close (only removes this lease, never a newer one for the same name)
+	void release(PlayerLease lease) {
+		leases.remove(lease.key(), lease);
+	}
 
-		if (maxWins < 0) return out; // no players found
+	public boolean isCheckedOut(String name) {
+		return leases.containsKey(IndexedPlayerRepository.foldName(name));
+	}
+
+	// how many players are checked out right now
+	public int checkedOut() {
+		return leases.size();
+	}
+
+	// true if the database in use can store the name (only the binary file has a length limit)
+	public boolean nameFits(String name) {
+		return binaryDb == null || MappedPlayerRepository.fits(name);
+	}
 
-		// ddd all players who match that win count
-		for (int i = 0; i < players.size(); i++) {
-			Player p = players.get(i);
-			if (p.getWins() == maxWins) out.add(p);
+	/*
+	  finds a player by name or creates a new one if not found.
+	  throws IllegalArgumentException for a name the binary database can't store (see nameFits)
+	*/
+	public synchronized Player getOrCreatePlayer(String name) {
+		// default new player with $100 and 0 wins
+		if (!GameMetrics.ENABLED) {
+			Player p = players.getOrCreate(name, STARTING_BALANCE);
+			if (nameIndex != null) nameIndex.add(p); // no-op for a player it already has
+			return p;
 		}
-		return out;
+		long start = System.nanoTime();
+		Player p = players.getOrCreate(name, STARTING_BALANCE);
+		GameMetrics.GLOBAL.lookup(System.nanoTime() - start);
+		if (nameIndex != null) nameIndex.add(p);
+		return p;
+	}
+
+	// looks up a player by name (case-insensitive, hash lookup instead of a list scan)
+	public synchronized Player findByName(String name) {
+		if (!GameMetrics.ENABLED) return players.findByName(name);
+		long start = System.nanoTime();
+		Player p = players.findByName(name);
+		GameMetrics.GLOBAL.lookup(System.nanoTime() - start);
+		return p;
 	}
 
-	// converts string to integer safely (avoids crashes)
-	private int safeInt(String s, int def) {
-		try { 
-			return Integer.parseInt(s); 
-		} catch (NumberFormatException e) { 
-			return def; 
+	// players whose name starts with prefix (case-insensitive, alphabetical), results offset .. offset + limit - 1
+	public synchronized List<Player> findByPrefix(String prefix, int offset, int limit) {
+		return names().prefix(prefix, offset, limit);
+	}
+
+	public synchronized int countByPrefix(String prefix) {
+		return names().countPrefix(prefix);
+	}
+
+	// names within maxEdits typos of name, closest first ("did you mean")
+	public synchronized List<Player> suggestNames(String name, int maxEdits, int limit) {
+		return names().fuzzy(name, maxEdits, limit);
+	}
+
+	// the name index, built from every player the first time a search needs it
+	private NameIndex names() {
+		if (nameIndex == null) {
+			NameIndex idx = new NameIndex();
+			List<Player> all = players.all();
+			for (int i = 0; i < all.size(); i++) idx.add(all.get(i));
+			nameIndex = idx;
 		}
+		return nameIndex;
+	}
+
+	// finds the player(s) with the most wins (read from the leaderboard, no scan over all players)
+	public synchronized ArrayList<Player> getTopPlayers() {
+		return new ArrayList<Player>(players.getLeaderboard().topWinners());
 	}
 }
@@ -0,0 +1,236 @@
+package mru.game.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/*
+  notes:
+  - counters and latency histograms for the game loop, shared by every session (GLOBAL)
+  - call sites check ENABLED first; it's a static final read from -Dcasino.metrics (default on),
+    so with -Dcasino.metrics=false the JIT drops the instrumentation completely
+  - counters are LongAdders (no contention between server sessions), latencies are LatencyHistograms
+  - readable three ways: the GameMetricsMBean over JMX, a snapshot file rewritten every few seconds,
+    or snapshot() directly
+  - the simulator's inner loop is NOT instrumented, it reports its own hands/sec
+*/
+public final class GameMetrics implements GameMetricsMBean {
+
+	public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("casino.metrics"));
+
+	public static final GameMetrics GLOBAL = new GameMetrics();
+
+	private final LongAdder rounds = new LongAdder();
+	private final LongAdder cards = new LongAdder();
+	private final LongAdder reshuffles = new LongAdder();
+	private final LongAdder sessions = new LongAdder();
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final LatencyHistogram roundTimes = new LatencyHistogram();
+	private final LatencyHistogram lookupTimes = new LatencyHistogram();
+	private volatile long lastLoadNanos;
+	private volatile long lastLoadRows;
+	private volatile long lastLoadSkipped;
+	private volatile long lastSaveNanos;
+
+	private volatile WriteBehindWriter writeBehind; // queue depth source (null = none)
+	private volatile double roundsPerSecond; // over the last snapshot period (only the snapshot writer sets it)
+	private long lastRounds;     // rounds at the previous snapshot file
+	private long lastSnapshotAt; // nanoTime of the previous snapshot file
+
+	private ScheduledExecutorService snapshots;
+
+	private GameMetrics() {
+		lastSnapshotAt = System.nanoTime();
+	}
+
+	// recording (callers check ENABLED first)
+
+	// one finished round: game-side time, cards dealt and reshuffles during it
+	public void roundPlayed(long nanos, int cardsDealt, long shuffles) {
+		rounds.increment();
+		cards.add(cardsDealt);
+		if (shuffles > 0) reshuffles.add(shuffles);
+		roundTimes.record(nanos);
+	}
+
+	public void lookup(long nanos) {
+		lookupTimes.record(nanos);
+	}
+
+	// a player file load: how long it took, players read and bad rows skipped
+	public void loaded(long nanos, long rows, long skipped) {
+		lastLoadRows = rows;
+		lastLoadSkipped = skipped;
+		lastLoadNanos = nanos;
+	}
+
+	public void saved(long nanos) {
+		lastSaveNanos = nanos;
+	}
+
+	public void sessionStarted() {
+		sessions.increment();
+		active.incrementAndGet();
+	}
+
+	public void sessionEnded() {
+		active.decrementAndGet();
+	}
+
+	public void watch(WriteBehindWriter w) {
+		writeBehind = w;
+	}
+
+	// publishing
+
+	// registers the MBean as mru.game:type=GameMetrics (once per JVM)
+	public void register() {
+		try {
+			ObjectName name = new ObjectName("mru.game:type=GameMetrics");
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			}
+		} catch (JMException e) {
+			System.out.println("[warn] can't register metrics MBean: " + e.getMessage());
+		}
+	}
+
+	// rewrites the snapshot file every periodSeconds on a background thread
+	public synchronized void startSnapshots(String path, long periodSeconds) {
+		if (snapshots != null) return;
+		snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "metrics-snapshot");
+			t.setDaemon(true);
+			return t;
+		});
+		snapshots.scheduleAtFixedRate(() -> writeSnapshot(path), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+	}
+
+	// stops the timer and writes one last snapshot
+	public synchronized void stopSnapshots(String path) {
+		if (snapshots == null) return;
+		snapshots.shutdown();
+		snapshots = null;
+		writeSnapshot(path);
+	}
+
+	// written to a temp file first and renamed, so a reader never sees half a file
+	private void writeSnapshot(String path) {
+		File f = new File(path);
+		File tmp = new File(path + ".tmp");
+		updateRate();
+		try {
+			Files.write(tmp.toPath(), snapshot().getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.out.println("[warn] metrics snapshot failed: " + e.getMessage());
+		}
+	}
+
+	// the rate covers the time since the previous snapshot file (only the scheduled writer moves the window)
+	private synchronized void updateRate() {
+		long now = System.nanoTime();
+		long r = rounds.sum();
+		if (now > lastSnapshotAt) roundsPerSecond = (r - lastRounds) * 1e9 / (now - lastSnapshotAt);
+		lastRounds = r;
+		lastSnapshotAt = now;
+	}
+
+	// read only: JMX clients and console polls see the last computed rate and change nothing
+	public String snapshot() {
+		return "enabled=" + ENABLED + "\n"
+				+ "roundsPlayed=" + getRoundsPlayed() + "\n"
+				+ "roundsPerSecond=" + String.format("%.1f", roundsPerSecond) + "\n"
+				+ "cardsDrawn=" + getCardsDrawn() + "\n"
+				+ "reshuffles=" + getReshuffles() + "\n"
+				+ "sessionsStarted=" + getSessionsStarted() + "\n"
+				+ "activeSessions=" + getActiveSessions() + "\n"
+				+ "roundMs.p50/p99/max=" + roundTimes.summaryMillis() + "\n"
+				+ "lookupMs.p50/p99/max=" + lookupTimes.summaryMillis() + "\n"
+				+ "lastLoadMs=" + getLastLoadMillis() + "\n"
+				+ "lastLoadRowsPerSecond=" + String.format("%.0f", getLastLoadRowsPerSecond()) + "\n"
+				+ "lastLoadSkipped=" + getLastLoadSkipped() + "\n"
+				+ "lastSaveMs=" + getLastSaveMillis() + "\n"
+				+ "writeBehindDepth=" + getWriteBehindDepth() + "\n";
+	}
+
+	// GameMetricsMBean
+
+	public boolean isEnabled() {
+		return ENABLED;
+	}
+
+	public long getRoundsPlayed() {
+		return rounds.sum();
+	}
+
+	public double getRoundsPerSecond() {
+		return roundsPerSecond;
+	}
+
+	public long getCardsDrawn() {
+		return cards.sum();
+	}
+
+	public long getReshuffles() {
+		return reshuffles.sum();
+	}
+
+	public long getSessionsStarted() {
+		return sessions.sum();
+	}
+
+	public int getActiveSessions() {
+		return active.get();
+	}
+
+	public long getRoundP50Micros() {
+		return roundTimes.percentile(50) / 1000;
+	}
+
+	public long getRoundP99Micros() {
+		return roundTimes.percentile(99) / 1000;
+	}
+
+	public long getLookupP50Micros() {
+		return lookupTimes.percentile(50) / 1000;
+	}
+
+	public long getLookupP99Micros() {
+		return lookupTimes.percentile(99) / 1000;
+	}
+
+	public long getLastLoadMillis() {
+		return lastLoadNanos / 1000000;
+	}
+
+	public double getLastLoadRowsPerSecond() {
+		long nanos = lastLoadNanos;
+		return nanos == 0 ? 0 : lastLoadRows * 1e9 / nanos;
+	}
+
+	public long getLastLoadSkipped() {
+		return lastLoadSkipped;
+	}
+
+	public long getLastSaveMillis() {
+		return lastSaveNanos / 1000000;
+	}
+
+	public int getWriteBehindDepth() {
+		WriteBehindWriter w = writeBehind;
+		return w == null ? 0 : w.queueDepth();
+	}
+}
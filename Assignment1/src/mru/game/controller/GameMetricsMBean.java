@@ -0,0 +1,43 @@
+package mru.game.controller;
+
+/*
+  what jconsole / any JMX client sees under mru.game:type=GameMetrics
+  (times are in microseconds unless the name says otherwise)
+*/
+public interface GameMetricsMBean {
+
+	boolean isEnabled();
+
+	long getRoundsPlayed();
+
+	double getRoundsPerSecond(); // over the last snapshot period
+
+	long getCardsDrawn();
+
+	long getReshuffles();
+
+	long getSessionsStarted(); // times a player sat down at a table (playFlow)
+
+	int getActiveSessions();
+
+	long getRoundP50Micros(); // game-side time of a round (waiting for the user's input not included)
+
+	long getRoundP99Micros();
+
+	long getLookupP50Micros();
+
+	long getLookupP99Micros();
+
+	long getLastLoadMillis();
+
+	double getLastLoadRowsPerSecond(); // players read per second by the last load
+
+	long getLastLoadSkipped(); // bad rows the last load skipped
+
+	long getLastSaveMillis();
+
+	int getWriteBehindDepth();
+
+	// everything above as "name=value" lines (the same text as the snapshot file)
+	String snapshot();
+}
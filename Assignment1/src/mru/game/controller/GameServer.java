@@ -0,0 +1,121 @@
+package mru.game.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+  notes:
+  - local TCP server: every connection gets the normal menus (play / search / exit),
+    reading lines from the socket instead of System.in
+  - one pooled thread per session, at most MAX_SESSIONS of them (the build targets java 17,
+    so there are no virtual threads). a connection past that is told the server is full and closed
+  - every session deals from the GameManager's shared shoe through its own handle; players are shared
+    through the GameManager too, which only lets one session play as a given name at a time
+  - try it with: telnet localhost 5150  (or java mru.game.application.LoadGenerator for a load test)
+*/
+public class GameServer {
+
+	private static final int MAX_SESSIONS = 256; // a session holds its thread while it waits for the client
+
+	private final GameManager manager;
+	private final int port;
+	private final AtomicInteger active = new AtomicInteger(); // sessions currently connected
+
+	public GameServer(GameManager manager, int port) {
+		this.manager = manager;
+		this.port = port;
+	}
+
+	// accepts connections until the process is stopped
+	public void run() throws IOException {
+		ExecutorService sessions = Executors.newFixedThreadPool(MAX_SESSIONS);
+		// backlog as big as the pool: with the default (50) a burst of connections can overflow it,
+		// and the dropped handshakes leave clients waiting on a connection the server never sees
+		try (ServerSocket server = new ServerSocket(port, MAX_SESSIONS)) {
+			System.out.println("[info] blackjack server listening on port " + port);
+			while (true) {
+				Socket s = server.accept();
+				// counted here and not in serve(), so a burst of connections can't get past the limit
+				if (active.incrementAndGet() > MAX_SESSIONS) {
+					active.decrementAndGet();
+					refuse(s);
+					continue;
+				}
+				sessions.execute(() -> serve(s));
+			}
+		} finally {
+			sessions.shutdown();
+		}
+	}
+
+	// runs one menu session over a connection
+	private void serve(Socket socket) {
+		try (Socket s = socket) {
+			s.setTcpNoDelay(true);
+
+			// output is buffered and only sent when the session is about to wait for input
+			PrintStream out = new PrintStream(new BufferedOutputStream(s.getOutputStream()), false, StandardCharsets.UTF_8);
+			Scanner in = new Scanner(new FlushingInputStream(s.getInputStream(), out), StandardCharsets.UTF_8);
+
+			manager.runSession(in, out, StandardCharsets.UTF_8, manager.sessionShoe());
+			out.println("Done! Please visit us again!");
+			out.flush();
+		} catch (NoSuchElementException e) {
+			// client hung up in the middle of a session, nothing to clean up (seats are released in playFlow)
+		} catch (IOException e) {
+			System.out.println("[warn] session failed: " + e.getMessage());
+		} finally {
+			active.decrementAndGet();
+		}
+	}
+
+	public int activeSessions() {
+		return active.get();
+	}
+
+	// every session thread is busy: say so and hang up instead of leaving the client waiting
+	private static void refuse(Socket socket) {
+		try (Socket s = socket) {
+			s.getOutputStream().write(("server is full, try again later" + System.lineSeparator())
+					.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			// client is gone already
+		}
+		System.out.println("[warn] refused a connection, " + MAX_SESSIONS + " sessions are running");
+	}
+
+	/*
+	  flushes the session's output every time the Scanner needs more input,
+	  so prompts like "Your choice: " (no newline) reach the client before we wait for the answer
+	*/
+	private static class FlushingInputStream extends FilterInputStream {
+
+		private final PrintStream out;
+
+		FlushingInputStream(InputStream in, PrintStream out) {
+			super(in);
+			this.out = out;
+		}
+
+		public int read() throws IOException {
+			out.flush();
+			return super.read();
+		}
+
+		public int read(byte[] b, int off, int len) throws IOException {
+			out.flush();
+			return super.read(b, off, len);
+		}
+	}
+}
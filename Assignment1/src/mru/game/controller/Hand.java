@@ -0,0 +1,62 @@
+package mru.game.controller;
+
+/*
+  notes:
+  - a blackjack hand of byte card codes (see Cards) that keeps its score up to date as cards are added
+  - stores the total with every ace as 1, plus the number of aces;
+    the best value is then just "+10 if there's an ace and it doesn't bust", so scoring is O(1)
+  - clear() and reuse the same Hand every round, it doesn't allocate after the first few rounds
+*/
+public final class Hand {
+
+	private byte[] cards = new byte[12]; // grows if a hand ever gets more cards (multi-deck shoes)
+	private int size;
+	private int hardTotal; // aces counted as 1
+	private int aces;
+
+	public void clear() {
+		size = 0;
+		hardTotal = 0;
+		aces = 0;
+	}
+
+	public void add(byte card) {
+		if (size == cards.length) {
+			byte[] bigger = new byte[size * 2];
+			System.arraycopy(cards, 0, bigger, 0, size);
+			cards = bigger;
+		}
+		cards[size++] = card;
+
+		int pts = Cards.points(card);
+		hardTotal += pts;
+		if (pts == 1) aces++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public byte get(int i) {
+		return cards[i];
+	}
+
+	// best total: one ace counts as 11 if that doesn't go over 21 (same as BlackjackGame.handValue)
+	public int value() {
+		return (aces > 0 && hardTotal <= 11) ? hardTotal + 10 : hardTotal;
+	}
+
+	// true if an ace is being counted as 11
+	public boolean isSoft() {
+		return aces > 0 && hardTotal <= 11;
+	}
+
+	public boolean isBust() {
+		return hardTotal > 21;
+	}
+
+	// two-card 21
+	public boolean isBlackjack() {
+		return size == 2 && value() == 21;
+	}
+}
@@ -0,0 +1,91 @@
+package mru.game.controller;
+
+import mru.game.model.Player;
+
+/*
+  notes:
+  - same round rules as BlackjackGame.playRound, but with no Scanner and no printBoard
+  - hit/stand decisions come from a PlayerStrategy instead of console input
+  - used by the Simulator to play lots of hands quickly
+  - NOT thread-safe: each worker thread needs its own HeadlessRound (and its own shoe)
+*/
+public class HeadlessRound {
+
+	// round outcomes returned by play()
+	public static final int LOSS = -1;
+	public static final int PUSH = 0;
+	public static final int WIN = 1;
+
+	private CardSource shoe; // shoe owned by this round engine (not shared between threads)
+
+	// hands are reused between rounds, and keep their own running totals (no rescoring)
+	private Hand playerHand = new Hand();
+	private Hand dealerHand = new Hand();
+
+	public HeadlessRound(CardSource shoe) {
+		this.shoe = shoe;
+	}
+
+	/*
+	  plays one full round and returns WIN, LOSS or PUSH from the player's point of view.
+	  the steps are the same as the console game:
+	  - deal player, dealer, player, dealer
+	  - player hits until the strategy says stand or the hand busts
+	  - if the player didn't bust, the dealer draws to 17
+	*/
+	public int play(PlayerStrategy strategy) {
+		playerHand.clear();
+		dealerHand.clear();
+		shoe.startRound(); // reshuffle if the cut card came out last round
+
+		// initial deal: player, dealer, player, dealer
+		playerHand.add(draw());
+		dealerHand.add(draw());
+		playerHand.add(draw());
+		dealerHand.add(draw());
+
+		int dealerUp = Cards.rank(dealerHand.get(0)); // the only dealer card the player can see
+
+		// player turn: ask the strategy until stand or bust
+		while (!playerHand.isBust() && strategy.shouldHit(playerHand.value(), playerHand.isSoft(), dealerUp)) {
+			playerHand.add(draw());
+		}
+
+		if (playerHand.isBust()) {
+			return LOSS; // player busted → dealer doesn't need to draw
+		}
+
+		// dealer draws until at least 17
+		while (dealerHand.value() < 17) {
+			dealerHand.add(draw());
+		}
+
+		int playerVal = playerHand.value();
+		int dealerVal = dealerHand.value();
+		if (dealerVal > 21 || playerVal > dealerVal) return WIN;
+		if (playerVal < dealerVal) return LOSS;
+		return PUSH;
+	}
+
+	/*
+	  plays one round for a real player and settles it the same way BlackjackGame does
+	  (even money on a win, bet lost on a loss, nothing on a push).
+	  returns the net change to the player balance.
+	*/
+	public int playRound(int bet, Player player, PlayerStrategy strategy) {
+		int outcome = play(strategy);
+
+		if (outcome == WIN) {
+			player.settle(bet, true);
+			return bet;
+		} else if (outcome == LOSS) {
+			player.addToBalance(-bet);
+			return -bet;
+		}
+		return 0;
+	}
+
+	private byte draw() {
+		return shoe.draw();
+	}
+}
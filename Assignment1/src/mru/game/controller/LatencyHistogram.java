@@ -0,0 +1,95 @@
+package mru.game.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+  notes:
+  - small lock-free latency histogram in the style of HdrHistogram: values (nanoseconds) go into
+    buckets by power of two, each power split into 16 sub-buckets, so any percentile is within ~6%
+  - record() is a bit trick, an atomic increment of the value's bucket and a LongAdder add for the sum
+    (so threads only meet on the same bucket); max is CASed only when a value beats it.
+    safe from any number of threads
+  - there's no separate total: count() adds up the buckets, which is fine for the rare reads
+  - fixed memory (64 * 16 counters), nothing is allocated while recording
+*/
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB = 1 << SUB_BITS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(64 * SUB);
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		counts.incrementAndGet(bucket(nanos));
+		sum.add(nanos);
+		long m;
+		while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {
+			// another thread raised max first, check again
+		}
+	}
+
+	public long count() {
+		long n = 0;
+		for (int i = 0; i < counts.length(); i++) n += counts.get(i);
+		return n;
+	}
+
+	public long max() {
+		return max.get();
+	}
+
+	public long mean() {
+		long n = count();
+		return n == 0 ? 0 : sum.sum() / n;
+	}
+
+	// value at the given percentile (0..100), reported as the middle of its bucket
+	public long percentile(double pct) {
+		// one copy of the buckets, so the rank and the walk see the same counts while others record
+		long[] c = new long[counts.length()];
+		long n = 0;
+		for (int i = 0; i < c.length; i++) {
+			c[i] = counts.get(i);
+			n += c[i];
+		}
+		if (n == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(n * pct / 100.0));
+		long seen = 0;
+		for (int i = 0; i < c.length; i++) {
+			seen += c[i];
+			if (seen >= rank) return Math.min(middle(i), max.get());
+		}
+		return max.get();
+	}
+
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+		sum.reset();
+		max.set(0);
+	}
+
+	// values below 16 get a bucket each; above that: (power of two, next 4 bits)
+	private static int bucket(long v) {
+		if (v < SUB) return (int) v;
+		int top = 63 - Long.numberOfLeadingZeros(v); // >= SUB_BITS
+		int sub = (int) (v >>> (top - SUB_BITS)) & (SUB - 1);
+		return (top - SUB_BITS + 1) * SUB + sub;
+	}
+
+	private static long middle(int bucket) {
+		if (bucket < SUB) return bucket;
+		int top = bucket / SUB + SUB_BITS - 1;
+		long low = (1L << top) | ((long) (bucket % SUB) << (top - SUB_BITS));
+		return low + (1L << (top - SUB_BITS)) / 2;
+	}
+
+	// "p50/p99/max" in milliseconds
+	public String summaryMillis() {
+		return String.format("%.3f/%.3f/%.3f", percentile(50) / 1e6, percentile(99) / 1e6, max() / 1e6);
+	}
+}
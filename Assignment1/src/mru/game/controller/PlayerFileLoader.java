@@ -0,0 +1,236 @@
+package mru.game.controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+import mru.game.model.Player;
+
+/*
+  notes:
+  - reads the "name,balance,wins" player file straight from a mapped byte buffer
+  - no Scanner, no split, no substring: only the name String is created per row
+  - numbers are parsed from the bytes; bad numbers become 0 and bad rows are skipped
+    without throwing exceptions
+  - big files are cut into chunks at line breaks and the chunks are parsed in parallel,
+    then put back together in file order
+  - gives exactly the same players as the old Scanner + split(",") loader:
+    same line breaks, same trim, same "exactly 3 fields after dropping trailing empty ones" rule
+    (the file is read as UTF-8 and only ASCII digits count as digits)
+*/
+public class PlayerFileLoader {
+
+	private static final long PARALLEL_MIN_BYTES = 4 * 1024 * 1024; // smaller files are parsed on one thread
+
+	private final int chunks; // 0 = decide from the file size
+
+	private long rows;        // players produced by the last load
+	private long skipped;     // non-empty rows that weren't name,balance,wins (GameManager warns about them)
+
+	public PlayerFileLoader() {
+		this(0);
+	}
+
+	// chunks = how many pieces to parse in parallel (1 = single thread)
+	public PlayerFileLoader(int chunks) {
+		this.chunks = chunks;
+	}
+
+	// reads every player in the file, in file order
+	public ArrayList<Player> load(String path) throws IOException {
+		ByteBuffer buf;
+		try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size > Integer.MAX_VALUE) throw new IOException(path + " is too big to map (" + size + " bytes)");
+			buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+
+		int len = buf.limit();
+		int n = chunks > 0 ? chunks
+				: (len >= PARALLEL_MIN_BYTES ? Runtime.getRuntime().availableProcessors() : 1);
+
+		// chunk i covers [bounds[i], bounds[i + 1]) and always starts at the beginning of a line
+		int[] bounds = new int[n + 1];
+		for (int i = 1; i < n; i++) {
+			bounds[i] = Math.max(bounds[i - 1], nextLineStart(buf, (int) ((long) len * i / n)));
+		}
+		bounds[n] = len;
+
+		Chunk[] parts;
+		if (n == 1) {
+			parts = new Chunk[] { parse(buf, 0, len) };
+		} else {
+			final ByteBuffer all = buf;
+			parts = IntStream.range(0, n).parallel()
+					.mapToObj(i -> parse(all.duplicate(), bounds[i], bounds[i + 1]))
+					.toArray(Chunk[]::new);
+		}
+
+		int total = 0;
+		for (int i = 0; i < parts.length; i++) total += parts[i].players.size();
+
+		ArrayList<Player> out = new ArrayList<Player>(total);
+		skipped = 0;
+		for (int i = 0; i < parts.length; i++) {
+			out.addAll(parts[i].players);
+			skipped += parts[i].skipped;
+		}
+
+		rows = out.size();
+		return out;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	// players parsed from one chunk
+	private static class Chunk {
+		ArrayList<Player> players = new ArrayList<Player>();
+		int skipped;
+	}
+
+	// first position after the line break at or after pos
+	private static int nextLineStart(ByteBuffer buf, int pos) {
+		int len = buf.limit();
+		for (int j = pos; j < len; j++) {
+			byte b = buf.get(j);
+			if (b == '\n') return j + 1;
+			if (b == '\r') return (j + 1 < len && buf.get(j + 1) == '\n') ? j + 2 : j + 1;
+		}
+		return len;
+	}
+
+	// parses all lines in [from, to)
+	private static Chunk parse(ByteBuffer buf, int from, int to) {
+		Chunk c = new Chunk();
+		byte[] scratch = new byte[64]; // reused for decoding names
+
+		int i = from;
+		while (i < to) {
+			// find the end of this line and the start of the next one
+			// (same line breaks as Scanner.nextLine: \r\n, \n, \r, U+2028, U+2029, U+0085)
+			int end = to;
+			int next = to;
+			for (int j = i; j < to; j++) {
+				byte b = buf.get(j);
+				if (b == '\n') {
+					end = j;
+					next = j + 1;
+					break;
+				}
+				if (b == '\r') {
+					end = j;
+					next = (j + 1 < to && buf.get(j + 1) == '\n') ? j + 2 : j + 1;
+					break;
+				}
+				if (b == (byte) 0xC2 && j + 1 < to && buf.get(j + 1) == (byte) 0x85) {
+					end = j;
+					next = j + 2;
+					break;
+				}
+				if (b == (byte) 0xE2 && j + 2 < to && buf.get(j + 1) == (byte) 0x80
+						&& (buf.get(j + 2) == (byte) 0xA8 || buf.get(j + 2) == (byte) 0xA9)) {
+					end = j;
+					next = j + 3;
+					break;
+				}
+			}
+
+			scratch = parseLine(buf, i, end, c, scratch);
+			i = next;
+		}
+		return c;
+	}
+
+	// parses one line [s, e) into a player (or counts it as skipped); returns the scratch buffer
+	private static byte[] parseLine(ByteBuffer buf, int s, int e, Chunk c, byte[] scratch) {
+		// String.trim(): drop bytes <= ' ' at both ends (multi-byte UTF-8 bytes are never <= ' ')
+		while (s < e && (buf.get(s) & 0xFF) <= ' ') s++;
+		while (e > s && (buf.get(e - 1) & 0xFF) <= ' ') e--;
+		if (s == e) return scratch; // empty line, not an error
+
+		// first two commas split name / balance / wins
+		int c1 = indexOf(buf, ',', s, e);
+		int c2 = c1 < 0 ? -1 : indexOf(buf, ',', c1 + 1, e);
+		if (c2 < 0) {
+			c.skipped++;
+			return scratch;
+		}
+
+		// split(",") drops trailing empty fields, so "a,1,2,,," still has 3 fields
+		// but "a,1,2,x" has 4 and "a,1," has only 2
+		int c3 = indexOf(buf, ',', c2 + 1, e);
+		int winsEnd = c3 < 0 ? e : c3;
+		boolean onlyCommasAfter = true;
+		for (int j = winsEnd; j < e; j++) {
+			if (buf.get(j) != ',') {
+				onlyCommasAfter = false;
+				break;
+			}
+		}
+		if (winsEnd == c2 + 1 || !onlyCommasAfter) {
+			c.skipped++;
+			return scratch;
+		}
+
+		// name (trimmed)
+		int ns = s;
+		int ne = c1;
+		while (ns < ne && (buf.get(ns) & 0xFF) <= ' ') ns++;
+		while (ne > ns && (buf.get(ne - 1) & 0xFF) <= ' ') ne--;
+		int nlen = ne - ns;
+		if (nlen > scratch.length) scratch = new byte[Math.max(nlen, scratch.length * 2)];
+		for (int j = 0; j < nlen; j++) scratch[j] = buf.get(ns + j);
+		String name = new String(scratch, 0, nlen, StandardCharsets.UTF_8);
+
+		int bal = parseInt(buf, c1 + 1, c2, 0);
+		int wins = parseInt(buf, c2 + 1, winsEnd, 0);
+		c.players.add(new Player(name, bal, wins));
+		return scratch;
+	}
+
+	private static int indexOf(ByteBuffer buf, char ch, int from, int to) {
+		for (int j = from; j < to; j++) {
+			if (buf.get(j) == ch) return j;
+		}
+		return -1;
+	}
+
+	/*
+	  Integer.parseInt(s.trim()) without making a String or throwing:
+	  optional +/- sign then digits; anything else (or an overflow) gives def
+	*/
+	static int parseInt(ByteBuffer buf, int s, int e, int def) {
+		while (s < e && (buf.get(s) & 0xFF) <= ' ') s++;
+		while (e > s && (buf.get(e - 1) & 0xFF) <= ' ') e--;
+		if (s == e) return def;
+
+		boolean neg = false;
+		byte first = buf.get(s);
+		if (first == '-' || first == '+') {
+			neg = first == '-';
+			s++;
+			if (s == e) return def; // just a sign
+		}
+
+		long v = 0;
+		long limit = neg ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for (int j = s; j < e; j++) {
+			int d = buf.get(j) - '0';
+			if (d < 0 || d > 9) return def;
+			v = v * 10 + d;
+			if (v > limit) return def;
+		}
+		return (int) (neg ? -v : v);
+	}
+}
@@ -0,0 +1,325 @@
+package mru.game.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import mru.game.model.Player;
+import mru.game.model.PlayerRepository;
+
+/*
+  notes:
+  - append-only log of player changes, written after every round so a crash loses nothing
+  - each record is one line "name,balance,wins" holding the values AFTER the round
+    (not +/- deltas), so replaying a record twice is harmless. that lets compaction
+    take its snapshot while the game keeps running
+  - group commit: append() puts the record in a buffer and waits; a background thread
+    writes everything that piled up in one write + one fsync and wakes all the waiters
+  - compaction: switch to a fresh journal file, write a full snapshot of the players
+    (CasinoInfo.txt), then delete the old journal file (only once the snapshot is safely written)
+  - on startup: load the snapshot, then replay(): old journal (if a compaction was cut off)
+    and then the current one
+*/
+public class PlayerJournal {
+
+	private static final long GROUP_WINDOW_MS = 2;        // how long the writer waits for more records
+	private static final int MAX_BATCH_BYTES = 64 * 1024; // stop waiting once this much is pending
+
+	private final File file;    // current journal file
+	private final File oldFile; // previous journal while a compaction is running
+
+	// lock order: writeLock first, then lock
+	private final Object lock = new Object();      // guards pending / sequence numbers
+	private final Object writeLock = new Object(); // guards the channel (writes and file rotation)
+
+	private StringBuilder pending = new StringBuilder(); // records not written yet
+	private long appendedSeq;  // number of records handed to append()
+	private long committedSeq; // number of records written and fsynced
+	private boolean closing;
+	private boolean failed;    // set after an I/O error, appends stop waiting
+
+	private FileChannel channel;
+	private Thread writer;
+	private ScheduledExecutorService compactor;
+
+	public PlayerJournal(String path) {
+		this.file = new File(path);
+		this.oldFile = new File(path + ".old");
+	}
+
+	/*
+	  applies every complete record from the journal files to the players
+	  (call after loading the snapshot, before open()).
+	  returns the number of records applied
+	*/
+	public int replay(PlayerRepository players) {
+		return replayFile(oldFile, players) + replayFile(file, players);
+	}
+
+	// opens the journal for appending and starts the group commit writer thread
+	public void open() throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+		writer = new Thread(this::writeLoop, "journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/*
+	  records the player's current balance and wins.
+	  returns once the record is on disk (shares the fsync with any other records in the same batch);
+	  false if it wasn't written (journal closed or failed, a warning is printed)
+	*/
+	public boolean append(Player p) {
+		long s = p.snapshot(); // balance and wins from the same update
+		String line = p.getName() + "," + Player.balanceOf(s) + "," + Player.winsOf(s) + "\n";
+		return commit(line, 1);
+	}
+
+	/*
+	  records several players at once (used by WriteBehindWriter).
+	  returns once all of them are on disk, together in one batch (false like append)
+	*/
+	public boolean appendAll(List<Player> batch) {
+		if (batch.isEmpty()) return true;
+		StringBuilder lines = new StringBuilder(batch.size() * 24);
+		for (int i = 0; i < batch.size(); i++) {
+			Player p = batch.get(i);
+			long s = p.snapshot();
+			lines.append(p.getName()).append(',').append(Player.balanceOf(s)).append(',').append(Player.winsOf(s)).append('\n');
+		}
+		return commit(lines, batch.size());
+	}
+
+	// hands records to the writer thread and waits until they're fsynced; false if they never will be
+	private boolean commit(CharSequence lines, int records) {
+		synchronized (lock) {
+			if (closing || failed) {
+				// e.g. a server session settling a round while the shutdown hook closes the journal
+				System.out.println("[warn] journal is " + (closing ? "closed" : "failing") + ", "
+						+ records + " record(s) not written" + (records == 1 ? ": " + lines.toString().trim() : ""));
+				return false;
+			}
+			pending.append(lines);
+			appendedSeq += records;
+			long mySeq = appendedSeq;
+			lock.notifyAll(); // wake the writer
+
+			while (committedSeq < mySeq && !failed) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false; // still pending, the writer may or may not get to it
+				}
+			}
+			return committedSeq >= mySeq;
+		}
+	}
+
+	// size of the current journal file in bytes
+	public long size() {
+		return file.length();
+	}
+
+	/*
+	  checks every periodSeconds (on a background thread) and compacts once the
+	  journal is at least minBytes long. snapshot must write every player to the main file
+	  and return true only once that file is safely on disk.
+	  whatever was replayed at startup is compacted right away, so the main file catches up
+	*/
+	public void startCompaction(long periodSeconds, long minBytes, BooleanSupplier snapshot) {
+		compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "journal-compactor");
+			t.setDaemon(true);
+			return t;
+		});
+		compactor.execute(() -> {
+			if (size() > 0 || oldFile.exists()) compact(snapshot);
+		});
+		compactor.scheduleWithFixedDelay(() -> {
+			if (size() >= minBytes || oldFile.exists()) compact(snapshot);
+		}, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+	}
+
+	/*
+	  rolls the journal into a fresh snapshot:
+	  1. everything appended so far is flushed to the current file, which becomes the old file
+	  2. new records go to a new, empty journal
+	  3. snapshot runs (every change from step 1 is already in memory, so it's included)
+	  4. the old journal is deleted, but only if the snapshot made it to disk
+	     (otherwise the old file stays, is replayed on the next start, and the next check tries again)
+	*/
+	public void compact(BooleanSupplier snapshot) {
+		try {
+			if (!oldFile.exists()) rotate(); // if an old file is left from a crash, just redo steps 3-4
+			if (!snapshot.getAsBoolean()) return;
+			Files.deleteIfExists(oldFile.toPath());
+		} catch (IOException e) {
+			System.out.println("[error] journal compaction failed: " + e.getMessage());
+		}
+	}
+
+	// flushes what's pending, stops the writer and closes the file
+	public void close() {
+		if (compactor != null) {
+			// let a compaction that already started finish (otherwise a half-done one is redone next start)
+			compactor.shutdown();
+			try {
+				compactor.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized (lock) {
+			closing = true;
+			lock.notifyAll();
+		}
+		if (writer != null) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		synchronized (writeLock) {
+			try {
+				if (channel != null) channel.close();
+			} catch (IOException e) {
+				System.out.println("[warn] journal close failed: " + e.getMessage());
+			}
+		}
+	}
+
+	// background writer: one write + one fsync per batch of records
+	private void writeLoop() {
+		while (true) {
+			// wait for something to write (without holding the write lock, so rotate can run)
+			synchronized (lock) {
+				while (pending.length() == 0 && !closing) {
+					waitOn(lock, 0);
+				}
+				if (pending.length() == 0) return; // closing and nothing left
+
+				// group commit window: give other rounds a moment to join this batch
+				long deadline = System.currentTimeMillis() + GROUP_WINDOW_MS;
+				long left = GROUP_WINDOW_MS;
+				while (!closing && pending.length() < MAX_BATCH_BYTES && left > 0) {
+					waitOn(lock, left);
+					left = deadline - System.currentTimeMillis();
+				}
+			}
+
+			synchronized (writeLock) {
+				flushPending();
+			}
+		}
+	}
+
+	// moves the current journal to the old file and starts a new one
+	private void rotate() throws IOException {
+		synchronized (writeLock) {
+			flushPending(); // records before the switch must end up in the old file
+			channel.close();
+			if (!file.renameTo(oldFile)) {
+				throw new IOException("can't rename " + file + " to " + oldFile);
+			}
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+	}
+
+	// writes and fsyncs all pending records (caller holds writeLock)
+	private void flushPending() {
+		String batch;
+		long upTo;
+		synchronized (lock) {
+			if (pending.length() == 0 || failed) return;
+			batch = pending.toString();
+			pending.setLength(0);
+			upTo = appendedSeq;
+		}
+
+		boolean ok = true;
+		try {
+			ByteBuffer buf = ByteBuffer.wrap(batch.getBytes(StandardCharsets.UTF_8));
+			while (buf.hasRemaining()) channel.write(buf);
+			channel.force(false);
+		} catch (IOException e) {
+			System.out.println("[error] journal write failed: " + e.getMessage());
+			ok = false;
+		}
+
+		synchronized (lock) {
+			if (ok) committedSeq = upTo;
+			else failed = true;
+			lock.notifyAll(); // wake every append() in this batch
+		}
+	}
+
+	// applies one journal file; a last line without '\n' was cut off by a crash and is skipped
+	private static int replayFile(File f, PlayerRepository players) {
+		if (!f.exists()) return 0;
+
+		String text;
+		try {
+			text = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			System.out.println("[warn] journal replay failed: " + e.getMessage());
+			return 0;
+		}
+
+		int applied = 0;
+		int start = 0;
+		int nl;
+		while ((nl = text.indexOf('\n', start)) >= 0) {
+			String[] parts = text.substring(start, nl).split(",");
+			start = nl + 1;
+			if (parts.length != 3) continue;
+
+			int bal, wins;
+			try {
+				bal = Integer.parseInt(parts[1].trim());
+				wins = Integer.parseInt(parts[2].trim());
+			} catch (NumberFormatException e) {
+				continue; // damaged record
+			}
+
+			String name = parts[0].trim();
+			Player p = players.findByName(name);
+			if (p == null) {
+				try {
+					players.add(new Player(name, bal, wins));
+				} catch (IllegalArgumentException e) {
+					// e.g. a long name journaled by the text database, which the binary one can't store
+					System.out.println("[warn] journal record skipped: " + e.getMessage());
+					continue;
+				}
+			} else {
+				p.setBalance(bal);
+				p.setWins(wins);
+			}
+			applied++;
+		}
+		return applied;
+	}
+
+	private static void waitOn(Object o, long ms) {
+		try {
+			o.wait(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package mru.game.controller;
+
+import mru.game.model.Player;
+
+/*
+  notes:
+  - the right to play as one player, given out by GameManager.checkout: while a lease is held
+    no other session (console, server connection or table seat) can check out the same player
+  - names are matched case-insensitively (folded, like the player index)
+  - close() gives it back; use try / finally (or try-with-resources) so a dropped
+    connection can't keep a player locked. closing twice does nothing
+  - the lease doesn't lock the Player object: balance updates are atomic on their own (see Player),
+    the lease only stops two sessions from playing the same player's rounds at once
+*/
+public final class PlayerLease implements AutoCloseable {
+
+	private final GameManager owner;
+	private final String key; // folded name, the lease table key
+	private final long since = System.currentTimeMillis();
+
+	private Player player;
+	private boolean isNew;
+	private volatile boolean released;
+
+	PlayerLease(GameManager owner, String key) {
+		this.owner = owner;
+		this.key = key;
+	}
+
+	// filled in once the lease is in the table (so the player is only created by the winner)
+	void grant(Player player, boolean isNew) {
+		this.player = player;
+		this.isNew = isNew;
+	}
+
+	String key() {
+		return key;
+	}
+
+	public Player getPlayer() {
+		return player;
+	}
+
+	// true if checking out made a brand new player
+	public boolean isNew() {
+		return isNew;
+	}
+
+	public boolean isHeld() {
+		return !released;
+	}
+
+	public long heldMillis() {
+		return System.currentTimeMillis() - since;
+	}
+
+	public void close() {
+		if (released) return;
+		released = true;
+		owner.release(this);
+	}
+}
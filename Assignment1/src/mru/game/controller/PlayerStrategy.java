@@ -0,0 +1,36 @@
+package mru.game.controller;
+
+/*
+  decides hit or stand for a headless (no console) round.
+  the console game asks the user "1. Hit / 2. Stand", a strategy answers the same question.
+  implementations must be stateless (or thread-safe) because the simulator shares one
+  strategy object across all worker threads.
+*/
+public interface PlayerStrategy {
+
+	/*
+	  playerTotal  - current best total of the player hand (same as BlackjackGame.handValue)
+	  soft         - true if an ace in the hand is still being counted as 11
+	  dealerUpRank - rank of the dealer's face-up card (1 = ace, 11..13 = face cards)
+	  returns true to hit, false to stand
+	*/
+	boolean shouldHit(int playerTotal, boolean soft, int dealerUpRank);
+
+	/*
+	  the extra decisions of a table with rules (see TableRules); a strategy that doesn't
+	  answer them just never doubles, splits or insures.
+	  shouldDouble is only asked for a first two-card hand, shouldSplit for a pair
+	  (pairPoints: 1 = aces, 10 = any two ten-value cards), takeInsurance when the dealer shows an ace
+	*/
+	default boolean shouldDouble(int playerTotal, boolean soft, int dealerUpRank) {
+		return false;
+	}
+
+	default boolean shouldSplit(int pairPoints, int dealerUpRank) {
+		return false;
+	}
+
+	default boolean takeInsurance() {
+		return false;
+	}
+}
@@ -0,0 +1,280 @@
+package mru.game.controller;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/*
+  notes:
+  - append-only binary log of every round played, for disputes and for replaying as a benchmark
+  - a round is stored by the exact cards it used (in deal order) plus the player's hit/stand answers,
+    so it can be re-dealt without knowing the shoe's seed
+  - file: header (magic, version), then records. every record starts with its length,
+    so a reader can skip records it doesn't understand and stops cleanly at a cut-off last one
+  - append() only encodes the record and queues it; a background thread writes whatever has queued
+    up in one write call (same idea as WriteBehindWriter), so a round never waits on the disk.
+    close() writes what's left
+  - the reader maps the file a window at a time, so a log bigger than one mapping (2GB) still reads
+
+  record (big-endian):
+    int   length of the rest of the record
+    long  time (ms since 1970)
+    byte  name length, then the name (UTF-8, cut to 255 bytes)
+    int   bet
+    byte  card count, then the cards (Cards codes: player, dealer, player, dealer, hits, dealer draws)
+    byte  decision count, then the decisions (1 = hit, 2 = stand, same as the menu)
+    byte  outcome (HeadlessRound.WIN / LOSS / PUSH)
+    int   balance change
+*/
+public class RoundLog {
+
+	private static final int MAGIC = 0x524C4731; // "RLG1"
+	private static final int VERSION = 1;
+	private static final int HEADER = 8;
+
+	public static final byte HIT = 1;
+	public static final byte STAND = 2;
+
+	private static final int MAX_QUEUED = 4 * 1024 * 1024; // bytes; append waits past this (the disk can't keep up)
+
+	private final FileChannel channel;
+
+	private final Object lock = new Object(); // guards everything below
+	private ArrayList<ByteBuffer> queued = new ArrayList<ByteBuffer>(); // records waiting to be written
+	private ArrayList<ByteBuffer> spare = new ArrayList<ByteBuffer>();  // swapped in while a batch is written
+	private int queuedBytes;
+	private long requestedFlush; // bumped by flush(), the writer writes right away then
+	private long doneFlush;
+	private boolean closing;
+	private long records;        // records written
+	private final Thread writer;
+
+	// opens (or creates) the log for appending
+	public RoundLog(String path) throws IOException {
+		channel = FileChannel.open(new File(path).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (channel.size() < HEADER) {
+			ByteBuffer h = ByteBuffer.allocate(HEADER);
+			h.putInt(MAGIC).putInt(VERSION).flip();
+			channel.truncate(0);
+			channel.write(h, 0);
+		} else {
+			checkHeader(channel, path);
+		}
+		channel.position(channel.size());
+
+		writer = new Thread(this::writeLoop, "round-log");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/*
+	  queues one round (not fsynced: the journal is what keeps balances safe, this log is for auditing).
+	  only blocks if MAX_QUEUED bytes are already waiting. safe to call from several sessions at once
+	*/
+	public void append(String name, int bet, byte[] cards, int cardCount,
+			byte[] decisions, int decisionCount, int outcome, int delta) {
+		byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		int nameLen = Math.min(255, nameBytes.length);
+		cardCount = Math.min(255, cardCount);
+		decisionCount = Math.min(255, decisionCount);
+
+		ByteBuffer buf = ByteBuffer.allocate(4 + 8 + 1 + nameLen + 4 + 1 + cardCount + 1 + decisionCount + 1 + 4);
+		buf.putInt(buf.capacity() - 4);
+		buf.putLong(System.currentTimeMillis());
+		buf.put((byte) nameLen).put(nameBytes, 0, nameLen);
+		buf.putInt(bet);
+		buf.put((byte) cardCount).put(cards, 0, cardCount);
+		buf.put((byte) decisionCount).put(decisions, 0, decisionCount);
+		buf.put((byte) outcome);
+		buf.putInt(delta);
+		buf.flip();
+
+		synchronized (lock) {
+			while (queuedBytes >= MAX_QUEUED && !closing && writer.isAlive()) {
+				waitOn(lock, 0);
+			}
+			if (closing) {
+				System.out.println("[warn] round log is closed, round not logged");
+				return;
+			}
+			queued.add(buf);
+			queuedBytes += buf.remaining();
+			if (queued.size() == 1) lock.notifyAll();
+		}
+	}
+
+	// records written to the file so far
+	public long getRecords() {
+		synchronized (lock) {
+			return records;
+		}
+	}
+
+	// waits until everything appended so far has been written
+	public void flush() {
+		synchronized (lock) {
+			long ticket = ++requestedFlush;
+			lock.notifyAll();
+			while (doneFlush < ticket && writer.isAlive()) {
+				waitOn(lock, 0);
+			}
+		}
+	}
+
+	// writes what's queued, stops the background thread and closes the file
+	public void close() {
+		synchronized (lock) {
+			closing = true;
+			lock.notifyAll();
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			System.out.println("[warn] round log close failed: " + e.getMessage());
+		}
+	}
+
+	private void writeLoop() {
+		while (true) {
+			long ticket;
+			synchronized (lock) {
+				while (queued.isEmpty() && !closing && requestedFlush == doneFlush) {
+					waitOn(lock, 0);
+				}
+				if (closing && queued.isEmpty()) {
+					doneFlush = requestedFlush;
+					lock.notifyAll();
+					return;
+				}
+				ticket = requestedFlush;
+				ArrayList<ByteBuffer> taken = queued;
+				queued = spare;
+				spare = taken;
+				queuedBytes = 0;
+				lock.notifyAll(); // appends waiting on MAX_QUEUED can go on
+			}
+
+			// outside the lock: rounds keep queueing into the other list meanwhile
+			int n = spare.size();
+			try {
+				ByteBuffer[] batch = spare.toArray(new ByteBuffer[0]);
+				long left = 0;
+				for (ByteBuffer b : batch) left += b.remaining();
+				while (left > 0) left -= channel.write(batch);
+			} catch (IOException e) {
+				System.out.println("[warn] round log write failed: " + e.getMessage());
+				n = 0;
+			}
+			spare.clear();
+
+			synchronized (lock) {
+				records += n;
+				doneFlush = ticket;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	private static void waitOn(Object o, long ms) {
+		try {
+			o.wait(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void checkHeader(FileChannel ch, String path) throws IOException {
+		ByteBuffer h = ByteBuffer.allocate(HEADER);
+		while (h.hasRemaining()) {
+			if (ch.read(h, h.position()) < 0) throw new EOFException(path);
+		}
+		if (h.getInt(0) != MAGIC || h.getInt(4) != VERSION) {
+			throw new IOException(path + " is not a round log (or from another version)");
+		}
+	}
+
+	/*
+	  reads a log front to back. the fields of the current record are plain public fields
+	  (the arrays are reused from record to record, only the name is a new String).
+	  the file is mapped WINDOW bytes at a time, moving on when the next record runs past the window
+	*/
+	public static class Reader implements AutoCloseable {
+
+		private static final int WINDOW = 64 * 1024 * 1024;
+
+		private final FileChannel channel;
+		private final long size;
+		private long windowStart; // file offset of the current window
+		private MappedByteBuffer in;
+
+		public long time;
+		public String name;
+		public int bet;
+		public byte[] cards = new byte[255];
+		public int cardCount;
+		public byte[] decisions = new byte[255];
+		public int decisionCount;
+		public int outcome;
+		public int delta;
+
+		public Reader(String path) throws IOException {
+			channel = FileChannel.open(new File(path).toPath(), StandardOpenOption.READ);
+			checkHeader(channel, path);
+			size = channel.size();
+			map(HEADER);
+		}
+
+		private void map(long from) throws IOException {
+			windowStart = from;
+			in = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW, size - from));
+		}
+
+		// starts the next window at the current position (if there's more file)
+		private void moveWindow() throws IOException {
+			if (windowStart + in.limit() < size) map(windowStart + in.position());
+		}
+
+		// moves to the next record; false at the end (or at a cut-off last record)
+		public boolean next() throws IOException {
+			if (in.remaining() < 4) moveWindow();
+			if (in.remaining() < 4) return false;
+			int len = in.getInt();
+			if (len < 0 || len > WINDOW - 4) return false;
+			if (in.remaining() < len) moveWindow(); // the record runs past this window
+			if (in.remaining() < len) return false;
+			int end = in.position() + len;
+
+			time = in.getLong();
+			int nameLen = in.get() & 0xFF;
+			byte[] nb = new byte[nameLen];
+			in.get(nb);
+			name = new String(nb, StandardCharsets.UTF_8);
+			bet = in.getInt();
+			cardCount = in.get() & 0xFF;
+			in.get(cards, 0, cardCount);
+			decisionCount = in.get() & 0xFF;
+			in.get(decisions, 0, decisionCount);
+			outcome = in.get();
+			delta = in.getInt();
+
+			in.position(end); // room for extra fields at the end of a record later
+			return true;
+		}
+
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package mru.game.controller;
+
+import java.io.IOException;
+
+/*
+  notes:
+  - re-plays a RoundLog headlessly: every round is dealt again from its recorded cards, with its
+    recorded hit/stand answers, through HeadlessRound (the same rules as playRound)
+  - a round "matches" when it uses exactly the recorded cards and gives the recorded outcome and
+    balance change; anything else is counted (and the first few are printed) as a mismatch
+  - nothing is printed per round and nothing is allocated per round except the player name,
+    so this also works as a benchmark workload made of real rounds
+*/
+public class RoundReplayer {
+
+	private static final int SHOW_MISMATCHES = 5;
+
+	private long rounds;
+	private long mismatches;
+	private long elapsedNanos;
+
+	// replays the whole file; returns true if every round matched
+	public boolean replay(String path) throws IOException {
+		long start = System.nanoTime();
+		rounds = 0;
+		mismatches = 0;
+
+		ScriptedShoe shoe = new ScriptedShoe();
+		ScriptedStrategy strategy = new ScriptedStrategy();
+		HeadlessRound round = new HeadlessRound(shoe);
+
+		try (RoundLog.Reader r = new RoundLog.Reader(path)) {
+			while (r.next()) {
+				rounds++;
+				shoe.load(r.cards, r.cardCount);
+				strategy.load(r.decisions, r.decisionCount);
+
+				int outcome = round.play(strategy);
+				int delta = outcome == HeadlessRound.WIN ? r.bet : (outcome == HeadlessRound.LOSS ? -r.bet : 0);
+
+				boolean ok = outcome == r.outcome && delta == r.delta
+						&& shoe.used == r.cardCount && !shoe.ranOut && strategy.used == r.decisionCount;
+				if (!ok) {
+					mismatches++;
+					if (mismatches <= SHOW_MISMATCHES) {
+						System.out.println("[warn] round " + rounds + " (" + r.name + ", bet " + r.bet + ") replayed as "
+								+ outcome + "/" + delta + " using " + shoe.used + " cards, log says "
+								+ r.outcome + "/" + r.delta + " with " + r.cardCount + " cards");
+					}
+				}
+			}
+		}
+		elapsedNanos = System.nanoTime() - start;
+		return mismatches == 0;
+	}
+
+	public long getRounds() {
+		return rounds;
+	}
+
+	public long getMismatches() {
+		return mismatches;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double roundsPerSecond() {
+		return elapsedNanos == 0 ? 0 : rounds * 1e9 / elapsedNanos;
+	}
+
+	public String toString() {
+		return "rounds: " + rounds + "  mismatches: " + mismatches
+				+ String.format("  (%.0f rounds/sec)", roundsPerSecond());
+	}
+
+	// deals exactly the recorded cards, in order
+	private static final class ScriptedShoe implements CardSource {
+		private byte[] script;
+		private int count;
+		int used;
+		boolean ranOut;
+
+		void load(byte[] cards, int n) {
+			script = cards;
+			count = n;
+			used = 0;
+			ranOut = false;
+		}
+
+		public void startRound() {
+			// no reshuffles, the script is the shoe
+		}
+
+		public byte draw() {
+			if (used == count) {
+				ranOut = true; // the round wanted more cards than were logged
+				return Cards.encode(10, 0);
+			}
+			return script[used++];
+		}
+
+		public long getShuffles() {
+			return 0;
+		}
+	}
+
+	// answers with the recorded decisions, then stands
+	private static final class ScriptedStrategy implements PlayerStrategy {
+		private byte[] script;
+		private int count;
+		int used;
+
+		void load(byte[] decisions, int n) {
+			script = decisions;
+			count = n;
+			used = 0;
+		}
+
+		public boolean shouldHit(int playerTotal, boolean soft, int dealerUpRank) {
+			if (used == count) return false;
+			return script[used++] == RoundLog.HIT;
+		}
+	}
+}
@@ -0,0 +1,307 @@
+package mru.game.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import mru.game.model.IndexedPlayerRepository;
+import mru.game.model.Leaderboard;
+import mru.game.model.Player;
+import mru.game.model.PlayerListener;
+import mru.game.model.PlayerRepository;
+
+/*
+  notes:
+  - players split over N shards by a hash of the folded name (same folding as IndexedPlayerRepository),
+    each shard = its own IndexedPlayerRepository (list + hash index + leaderboard) and its own text file
+    res/shards/CasinoInfo-NN.txt (same "name,balance,wins" lines as CasinoInfo.txt)
+  - lookups only touch the player's shard, and each shard has its own lock,
+    so sessions working on different shards never wait on each other
+  - loadAll() reads every shard file at the same time (one task per shard)
+  - every shard remembers whether anything in it changed; saveDirty() only rewrites those files
+    (crash-safe, through SnapshotWriter)
+  - the leaderboard is a merged view: top K asks each shard for its own top K and merges them
+  - made by "AppDriver shard <n>", used automatically when res/shards/ exists
+*/
+public class ShardedPlayerRepository implements PlayerRepository {
+
+	private final Shard[] shards;
+	private final MergedLeaderboard leaderboard = new MergedLeaderboard();
+
+	// one shard per file in dir (CasinoInfo-00.txt, CasinoInfo-01.txt, ...)
+	public ShardedPlayerRepository(File dir, int count) {
+		shards = new Shard[count];
+		for (int i = 0; i < count; i++) {
+			shards[i] = new Shard(new File(dir, fileName(i)));
+		}
+	}
+
+	public static String fileName(int shard) {
+		return String.format("CasinoInfo-%02d.txt", shard);
+	}
+
+	// how many shard files a folder holds (0 = not a shard folder)
+	public static int countShards(File dir) {
+		int n = 0;
+		while (new File(dir, fileName(n)).isFile()) n++;
+		return n;
+	}
+
+	public int shardCount() {
+		return shards.length;
+	}
+
+	// loads every shard file in parallel; returns false if any of them failed (those shards stay empty)
+	public boolean loadAll() {
+		return IntStream.range(0, shards.length).parallel()
+				.mapToObj(i -> shards[i].load())
+				.reduce(Boolean.TRUE, (a, b) -> a && b);
+	}
+
+	// rewrites only the shards that changed since their last save; false if any write failed
+	public boolean saveDirty() {
+		SnapshotWriter writer = new SnapshotWriter();
+		boolean ok = true;
+		for (int i = 0; i < shards.length; i++) {
+			if (shards[i].dirty) ok &= shards[i].save(writer);
+		}
+		return ok;
+	}
+
+	// number of shards waiting to be saved
+	public int dirtyShards() {
+		int n = 0;
+		for (int i = 0; i < shards.length; i++) {
+			if (shards[i].dirty) n++;
+		}
+		return n;
+	}
+
+	private Shard shardOf(String name) {
+		int h = IndexedPlayerRepository.foldName(name).hashCode();
+		h ^= (h >>> 16); // String hashes are weak in the low bits for short names
+		return shards[(h & 0x7fffffff) % shards.length];
+	}
+
+	// PlayerRepository
+
+	public Player findByName(String name) {
+		if (name == null) return null;
+		return shardOf(name).find(name);
+	}
+
+	public Player getOrCreate(String name, int startingBalance) {
+		return shardOf(name).getOrCreate(name, startingBalance);
+	}
+
+	public void add(Player p) {
+		shardOf(p.getName()).add(p);
+	}
+
+	// every player, shard by shard (a new list each call)
+	public List<Player> all() {
+		ArrayList<Player> out = new ArrayList<Player>(size());
+		for (int i = 0; i < shards.length; i++) {
+			synchronized (shards[i]) {
+				out.addAll(shards[i].repo.all());
+			}
+		}
+		return out;
+	}
+
+	// bad rows skipped over all shard files at the last loadAll()
+	public long skippedRows() {
+		long n = 0;
+		for (int i = 0; i < shards.length; i++) n += shards[i].skipped;
+		return n;
+	}
+
+	public int size() {
+		int n = 0;
+		for (int i = 0; i < shards.length; i++) {
+			synchronized (shards[i]) {
+				n += shards[i].repo.size();
+			}
+		}
+		return n;
+	}
+
+	public void clear() {
+		for (int i = 0; i < shards.length; i++) {
+			synchronized (shards[i]) {
+				shards[i].repo.clear();
+				shards[i].dirty = true;
+			}
+		}
+	}
+
+	public Leaderboard getLeaderboard() {
+		return leaderboard;
+	}
+
+	/*
+	  one partition: its players, its file and its dirty flag.
+	  it listens to its own players so it knows when it needs saving,
+	  and passes every change on to its leaderboard
+	*/
+	private static final class Shard implements PlayerListener {
+		final File file;
+		final IndexedPlayerRepository repo = new IndexedPlayerRepository();
+		volatile boolean dirty;
+		volatile long skipped; // bad rows in the file at the last load
+
+		Shard(File file) {
+			this.file = file;
+			dirty = !file.exists(); // a new shard gets its (possibly empty) file on the first save
+		}
+
+		synchronized Player find(String name) {
+			return repo.findByName(name);
+		}
+
+		synchronized Player getOrCreate(String name, int startingBalance) {
+			Player p = repo.findByName(name);
+			if (p != null) return p;
+			p = repo.getOrCreate(name, startingBalance);
+			p.setListener(this);
+			dirty = true;
+			return p;
+		}
+
+		synchronized void add(Player p) {
+			repo.add(p);
+			p.setListener(this);
+			dirty = true;
+		}
+
+		boolean load() {
+			if (!file.exists()) return true;
+			try {
+				PlayerFileLoader loader = new PlayerFileLoader(1); // this task is the parallelism
+				ArrayList<Player> loaded = loader.load(file.getPath());
+				skipped = loader.getSkipped();
+				if (skipped > 0) System.out.println("[warn] " + skipped + " bad rows skipped in " + file);
+				synchronized (this) {
+					repo.clear();
+					for (int i = 0; i < loaded.size(); i++) {
+						repo.add(loaded.get(i));
+						loaded.get(i).setListener(this);
+					}
+					dirty = false;
+				}
+				return true;
+			} catch (IOException e) {
+				System.out.println("[warn] load failed for " + file + ": " + e.getMessage());
+				return false;
+			}
+		}
+
+		// copies the values under the shard lock, writes without it
+		boolean save(SnapshotWriter writer) {
+			String[] names;
+			int[] balances;
+			int[] wins;
+			int count;
+			synchronized (this) {
+				dirty = false; // changes from here on mark it again
+				List<Player> all = repo.all();
+				count = all.size();
+				names = new String[count];
+				balances = new int[count];
+				wins = new int[count];
+				for (int i = 0; i < count; i++) {
+					Player p = all.get(i);
+					long s = p.snapshot(); // balance and wins from the same update
+					names[i] = p.getName();
+					balances[i] = Player.balanceOf(s);
+					wins[i] = Player.winsOf(s);
+				}
+			}
+			boolean ok = writer.write(file.getPath(), names, balances, wins, count);
+			if (!ok) dirty = true; // try again next time
+			return ok;
+		}
+
+		public void winsChanged(Player p, int oldWins) {
+			dirty = true;
+			repo.getLeaderboard().winsChanged(p, oldWins);
+		}
+
+		public void balanceChanged(Player p, int oldBalance) {
+			dirty = true;
+			repo.getLeaderboard().balanceChanged(p, oldBalance);
+		}
+	}
+
+	/*
+	  leaderboard over all shards: every query asks the shards (each keeps its own, always up to date)
+	  and merges the answers. top K = merge of each shard's top K. it holds nothing itself
+	*/
+	private final class MergedLeaderboard implements Leaderboard {
+
+		public List<Player> topWinners() {
+			ArrayList<Player> out = new ArrayList<Player>();
+			int best = Integer.MIN_VALUE;
+			for (int i = 0; i < shards.length; i++) {
+				List<Player> top = shards[i].repo.getLeaderboard().topWinners();
+				if (top.isEmpty()) continue;
+				int w = top.get(0).getWins();
+				if (w > best) {
+					best = w;
+					out.clear();
+				}
+				if (w == best) out.addAll(top);
+			}
+			return out;
+		}
+
+		public List<Player> topByWins(int k) {
+			ArrayList<List<Player>> lists = new ArrayList<List<Player>>(shards.length);
+			for (int i = 0; i < shards.length; i++) lists.add(shards[i].repo.getLeaderboard().topByWins(k));
+			return merge(lists, k, true);
+		}
+
+		public List<Player> topByBalance(int k) {
+			ArrayList<List<Player>> lists = new ArrayList<List<Player>>(shards.length);
+			for (int i = 0; i < shards.length; i++) lists.add(shards[i].repo.getLeaderboard().topByBalance(k));
+			return merge(lists, k, false);
+		}
+
+		// players with more wins in every shard, plus one
+		public int rankOf(Player p) {
+			int above = 0;
+			for (int i = 0; i < shards.length; i++) above += shards[i].repo.getLeaderboard().rankOf(p) - 1;
+			return above + 1;
+		}
+
+		public int size() {
+			int n = 0;
+			for (int i = 0; i < shards.length; i++) n += shards[i].repo.getLeaderboard().size();
+			return n;
+		}
+
+		// k-way merge of lists that are each sorted best first
+		private List<Player> merge(ArrayList<List<Player>> lists, int k, boolean byWins) {
+			int[] pos = new int[lists.size()];
+			ArrayList<Player> out = new ArrayList<Player>(Math.max(0, Math.min(k, 64)));
+			while (out.size() < k) {
+				int pick = -1;
+				int bestScore = 0;
+				for (int i = 0; i < lists.size(); i++) {
+					if (pos[i] >= lists.get(i).size()) continue;
+					Player p = lists.get(i).get(pos[i]);
+					int score = byWins ? p.getWins() : p.getBalance();
+					if (pick < 0 || score > bestScore) {
+						pick = i;
+						bestScore = score;
+					}
+				}
+				if (pick < 0) break;
+				out.add(lists.get(pick).get(pos[pick]++));
+			}
+			return out;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package mru.game.controller;
+
+import java.util.SplittableRandom;
+
+/*
+  notes:
+  - a dealing shoe of one or more 52-card decks, held as byte card codes (see Cards)
+  - drawing is just "return cards[next++]", nothing is removed from a list
+  - the cut card sits at a penetration point (e.g. 0.75 = three quarters of the shoe);
+    once a round starts past it, the whole shoe is reshuffled in place
+  - each shoe has its own SplittableRandom, so threads that each own a shoe never share
+    a random generator. giving the same seed gives the same cards every time
+  - NOT thread-safe: one shoe per table / session / simulation worker
+*/
+public class Shoe implements CardSource {
+
+	private final byte[] cards;
+	private final int cut;            // reshuffle once next reaches this
+	private final SplittableRandom rng;
+
+	private int next;                 // index of the next card to deal
+	private long shuffles;            // how many times the shoe has been shuffled
+
+	// one deck, dealt all the way down (like the original CardDeck)
+	public Shoe() {
+		this(1, 1.0, new SplittableRandom());
+	}
+
+	public Shoe(int decks, double penetration, long seed) {
+		this(decks, penetration, new SplittableRandom(seed));
+	}
+
+	public Shoe(int decks, double penetration, SplittableRandom rng) {
+		if (decks < 1) throw new IllegalArgumentException("need at least one deck");
+		if (penetration <= 0 || penetration > 1) throw new IllegalArgumentException("penetration must be in (0, 1]");
+
+		cards = new byte[decks * 52];
+		int i = 0;
+		for (int d = 0; d < decks; d++) {
+			for (int s = 0; s < 4; s++) {
+				for (int r = 1; r <= 13; r++) {
+					cards[i++] = Cards.encode(r, s);
+				}
+			}
+		}
+		cut = Math.max(1, (int) (cards.length * penetration));
+		this.rng = rng;
+		shuffle();
+	}
+
+	// call before dealing a round: reshuffles if the cut card has come out
+	public void startRound() {
+		if (next >= cut) shuffle();
+	}
+
+	// deals the next card (if a round runs the shoe completely dry, it's reshuffled on the spot)
+	public byte draw() {
+		if (next == cards.length) shuffle();
+		return cards[next++];
+	}
+
+	// Fisher-Yates shuffle of the whole shoe, in place
+	public void shuffle() {
+		for (int i = cards.length - 1; i > 0; i--) {
+			int j = rng.nextInt(i + 1);
+			byte tmp = cards[i];
+			cards[i] = cards[j];
+			cards[j] = tmp;
+		}
+		next = 0;
+		shuffles++;
+	}
+
+	// cards left before the shoe is empty
+	public int remaining() {
+		return cards.length - next;
+	}
+
+	public int size() {
+		return cards.length;
+	}
+
+	public int decks() {
+		return cards.length / 52;
+	}
+
+	public long getShuffles() {
+		return shuffles;
+	}
+}
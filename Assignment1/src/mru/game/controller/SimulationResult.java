@@ -0,0 +1,97 @@
+package mru.game.controller;
+
+/*
+  totals from a batch of simulated hands (all amounts are in bet units of 1).
+  each worker fills its own result and they are merged at the end, so no locking is needed.
+*/
+public class SimulationResult {
+
+	private long hands;
+	private long wins;
+	private long losses;
+	private long pushes;
+	private long net;        // sum of the hands' results in half bets (+2 win, -2 loss, +3 for a 3:2 natural, ...)
+	private long elapsedNanos;
+
+	// records one outcome from HeadlessRound.play (even money)
+	public void record(int outcome) {
+		record(outcome, 2 * outcome);
+	}
+
+	// records one seat of a TableRound: its outcome and its net result in half bets
+	public void record(int outcome, int halfBets) {
+		hands++;
+		net += halfBets;
+		if (outcome == HeadlessRound.WIN) {
+			wins++;
+		} else if (outcome == HeadlessRound.LOSS) {
+			losses++;
+		} else {
+			pushes++;
+		}
+	}
+
+	// adds another worker's counts into a new result
+	public SimulationResult merge(SimulationResult other) {
+		SimulationResult r = new SimulationResult();
+		r.hands = hands + other.hands;
+		r.wins = wins + other.wins;
+		r.losses = losses + other.losses;
+		r.pushes = pushes + other.pushes;
+		r.net = net + other.net;
+		r.elapsedNanos = Math.max(elapsedNanos, other.elapsedNanos);
+		return r;
+	}
+
+	public void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public long getHands() {
+		return hands;
+	}
+
+	public long getWins() {
+		return wins;
+	}
+
+	public long getLosses() {
+		return losses;
+	}
+
+	public long getPushes() {
+		return pushes;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double winRate() {
+		return hands == 0 ? 0 : (double) wins / hands;
+	}
+
+	public double lossRate() {
+		return hands == 0 ? 0 : (double) losses / hands;
+	}
+
+	public double pushRate() {
+		return hands == 0 ? 0 : (double) pushes / hands;
+	}
+
+	// average net result per hand for a 1 unit bet (negative = house edge)
+	public double expectedValue() {
+		return hands == 0 ? 0 : net / 2.0 / hands;
+	}
+
+	public double handsPerSecond() {
+		return elapsedNanos == 0 ? 0 : hands / (elapsedNanos / 1e9);
+	}
+
+	public String toString() {
+		return String.format("hands: %d  (%.0f hands/sec)%n"
+				+ "win: %.4f  loss: %.4f  push: %.4f%n"
+				+ "expected value per unit bet: %+.5f",
+				hands, handsPerSecond(), winRate(), lossRate(), pushRate(), expectedValue());
+	}
+}
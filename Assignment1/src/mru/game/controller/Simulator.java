@@ -0,0 +1,93 @@
+package mru.game.controller;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/*
+  notes:
+  - runs lots of headless blackjack hands to check win rates / house edge
+  - the hands are split into chunks and the chunks run on a parallel stream (all cores)
+  - every chunk gets its own shoe (with its own random generator) and HeadlessRound,
+    so threads never share game state
+  - chunk seeds all come from one seed, so the same seed and settings give the same result
+*/
+public class Simulator {
+
+	private final int chunks;         // how many pieces the work is split into
+	private final int decks;          // decks per shoe
+	private final double penetration; // how far into the shoe the cut card sits
+	private final long seed;
+
+	// one deck dealt to the end, like the console game, with a random seed
+	public Simulator() {
+		this(1, 1.0, new SplittableRandom().nextLong());
+	}
+
+	public Simulator(int decks, double penetration, long seed) {
+		// a few chunks per core so a slow chunk doesn't leave other cores idle at the end
+		this(Runtime.getRuntime().availableProcessors() * 4, decks, penetration, seed);
+	}
+
+	public Simulator(int chunks, int decks, double penetration, long seed) {
+		this.chunks = Math.max(1, chunks);
+		this.decks = decks;
+		this.penetration = penetration;
+		this.seed = seed;
+	}
+
+	// plays the given number of hands with the strategy and returns the combined totals
+	public SimulationResult run(long hands, PlayerStrategy strategy) {
+		return run(hands, strategy, 1, TableRules.CLASSIC);
+	}
+
+	/*
+	  same, but every chunk deals to a table of seats hands at once (see TableRound),
+	  so the dealer's hand is played once per table round instead of once per hand,
+	  and with the given rules (anything but CLASSIC always goes through TableRound)
+	*/
+	public SimulationResult run(long hands, PlayerStrategy strategy, int seats, TableRules rules) {
+		long start = System.nanoTime();
+
+		long perChunk = hands / chunks;
+		long extra = hands % chunks; // first "extra" chunks play one more hand
+
+		// seeds are handed out before going parallel, so chunk i always gets the same one
+		SplittableRandom root = new SplittableRandom(seed);
+		long[] seeds = new long[chunks];
+		for (int i = 0; i < chunks; i++) seeds[i] = root.nextLong();
+
+		SimulationResult total = IntStream.range(0, chunks).parallel()
+				.mapToObj(i -> seats > 1 || !rules.isClassic()
+						? runTableChunk(perChunk + (i < extra ? 1 : 0), strategy, seats, rules, seeds[i])
+						: runChunk(perChunk + (i < extra ? 1 : 0), strategy, seeds[i]))
+				.reduce(new SimulationResult(), SimulationResult::merge);
+
+		total.setElapsedNanos(System.nanoTime() - start);
+		return total;
+	}
+
+	// plays one chunk of hands on the current thread
+	private SimulationResult runChunk(long hands, PlayerStrategy strategy, long chunkSeed) {
+		HeadlessRound round = new HeadlessRound(new Shoe(decks, penetration, chunkSeed));
+		SimulationResult r = new SimulationResult();
+		for (long i = 0; i < hands; i++) {
+			r.record(round.play(strategy));
+		}
+		return r;
+	}
+
+	// plays one chunk as full table rounds (the last round only counts the seats still needed)
+	private SimulationResult runTableChunk(long hands, PlayerStrategy strategy, int seats, TableRules rules, long chunkSeed) {
+		TableRound table = new TableRound(new Shoe(decks, penetration, chunkSeed), rules);
+		PlayerStrategy[] strategies = new PlayerStrategy[seats];
+		for (int i = 0; i < seats; i++) strategies[i] = strategy;
+
+		SimulationResult r = new SimulationResult();
+		for (long left = hands; left > 0; left -= seats) {
+			table.play(strategies, seats);
+			int n = (int) Math.min(seats, left);
+			for (int i = 0; i < n; i++) r.record(table.outcome(i), table.result(i));
+		}
+		return r;
+	}
+}
@@ -0,0 +1,102 @@
+package mru.game.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/*
+  notes:
+  - writes the player file ("name,balance,wins" lines) without ever truncating the live copy:
+    1. everything goes to <file>.tmp through one big buffer and a FileChannel
+    2. the temp file is fsynced
+    3. it's renamed over the real file in one atomic step
+    4. the folder is fsynced so the rename itself survives a power cut
+  - a crash at any point leaves either the old file or the new one, never half of one
+  - works from plain arrays (a copy taken by the caller), so the players can keep changing meanwhile
+  - errors come back as false (and a message), the caller decides what to keep (see PlayerJournal.compact)
+*/
+public class SnapshotWriter {
+
+	private static final int BUFFER_BYTES = 256 * 1024;
+
+	private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+	private final byte[] digits = new byte[11];
+
+	// names[i], balances[i], wins[i] for i < count; returns true once the new file is in place
+	public boolean write(String path, String[] names, int[] balances, int[] wins, int count) {
+		File target = new File(path);
+		File tmp = new File(path + ".tmp");
+
+		try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			buf.clear();
+			for (int i = 0; i < count; i++) {
+				byte[] name = names[i].getBytes(StandardCharsets.UTF_8);
+				if (buf.remaining() < name.length + 32) drain(ch);
+				if (name.length + 32 > buf.capacity()) {
+					ch.write(ByteBuffer.wrap(name)); // absurdly long name, skip the buffer
+				} else {
+					buf.put(name);
+				}
+				buf.put((byte) ',');
+				putInt(balances[i]);
+				buf.put((byte) ',');
+				putInt(wins[i]);
+				buf.put((byte) '\n');
+			}
+			drain(ch);
+			ch.force(true);
+		} catch (IOException e) {
+			System.out.println("[error] save failed, " + path + " left as it was: " + e.getMessage());
+			tmp.delete();
+			return false;
+		}
+
+		try {
+			Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.out.println("[error] save failed, can't replace " + path + ": " + e.getMessage());
+			tmp.delete();
+			return false;
+		}
+
+		syncDir(target.getAbsoluteFile().getParentFile());
+		return true;
+	}
+
+	private void drain(FileChannel ch) throws IOException {
+		buf.flip();
+		while (buf.hasRemaining()) ch.write(buf);
+		buf.clear();
+	}
+
+	// decimal digits without going through a String
+	private void putInt(int v) {
+		long n = v;
+		if (n < 0) {
+			buf.put((byte) '-');
+			n = -n;
+		}
+		int len = 0;
+		do {
+			digits[len++] = (byte) ('0' + n % 10);
+			n /= 10;
+		} while (n > 0);
+		while (len > 0) buf.put(digits[--len]);
+	}
+
+	// makes the rename durable; some platforms can't open a folder, the file itself is already safe then
+	private static void syncDir(File dir) {
+		if (dir == null) return;
+		try (FileChannel d = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+			d.force(true);
+		} catch (IOException e) {
+			// not supported here (e.g. windows)
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package mru.game.controller;
+
+import mru.game.model.Player;
+
+/*
+  notes:
+  - one round at a full table: up to 7 seats against one dealer hand, all dealt from the same shoe
+  - deal order is the real one: one card to every seat then the dealer, then a second round of cards
+  - seats play in order, each with its own PlayerStrategy (a bot, or a ConsoleSeat asking a person)
+  - the dealer plays ONCE for the whole table, and not at all if every seat busted,
+    so the dealer's cards are shared by all the seats instead of being drawn per hand
+  - the rules (double, split, insurance, 3:2 naturals) come from TableRules; CLASSIC plays exactly
+    like BlackjackGame / HeadlessRound
+  - results are kept in half bets (a 3:2 natural = +3, a doubled loss = -4, a lost insurance = -1),
+    so a seat's result is one int however many hands it split into
+  - settlement is one pass over the seats
+  - hands and result arrays are made once and reused, a round doesn't allocate
+  - NOT thread-safe: one TableRound per table (the shoe can be a ConcurrentShoe shared by tables)
+*/
+public class TableRound {
+
+	public static final int MAX_SEATS = 7;
+	public static final int MAX_HANDS = 4; // per seat, after splits
+
+	private final CardSource shoe;
+	private final TableRules rules;
+
+	private final Hand[][] hands = new Hand[MAX_SEATS][MAX_HANDS];
+	private final int[][] stakes = new int[MAX_SEATS][MAX_HANDS]; // 1, or 2 once doubled
+	private final int[] handCount = new int[MAX_SEATS];
+	private final int[] active = new int[MAX_SEATS];          // hand being played (for ConsoleSeat)
+	private final boolean[] split = new boolean[MAX_SEATS];   // seat has split (no naturals any more)
+	private final boolean[] insured = new boolean[MAX_SEATS];
+	private final int[] room = new int[MAX_SEATS];            // half bets the seat can still put in
+	private final Hand dealerHand = new Hand();
+
+	private final int[] results = new int[MAX_SEATS];  // net result per seat, in half bets
+	private final int[] outcomes = new int[MAX_SEATS]; // HeadlessRound.WIN / LOSS / PUSH per seat
+	private int seats;
+
+	public TableRound(CardSource shoe) {
+		this(shoe, TableRules.CLASSIC);
+	}
+
+	public TableRound(CardSource shoe, TableRules rules) {
+		this.shoe = shoe;
+		this.rules = rules;
+		for (int i = 0; i < MAX_SEATS; i++) {
+			for (int h = 0; h < MAX_HANDS; h++) hands[i][h] = new Hand();
+		}
+	}
+
+	/*
+	  deals and plays one round for seats 0 .. seats - 1 (strategies[i] plays seat i),
+	  with no limit on what a seat can double or split.
+	  the result of every seat is then in outcome(i) / result(i)
+	*/
+	public void play(PlayerStrategy[] strategies, int seats) {
+		for (int i = 0; i < seats && i < MAX_SEATS; i++) room[i] = Integer.MAX_VALUE;
+		playRound(strategies, seats);
+	}
+
+	/*
+	  plays one round and settles every seat in the same pass: players[i] bets bets[i],
+	  gets the win / balance update, and deltas[i] is set to the net change.
+	  a seat only doubles, splits or insures if its balance covers the extra bet
+	*/
+	public void playRound(Player[] players, int[] bets, PlayerStrategy[] strategies, int seats, int[] deltas) {
+		for (int i = 0; i < seats && i < MAX_SEATS; i++) {
+			long halves = 2L * players[i].getBalance() / Math.max(1, bets[i]);
+			room[i] = (int) Math.min(Integer.MAX_VALUE, halves);
+		}
+		playRound(strategies, seats);
+
+		for (int i = 0; i < seats; i++) {
+			// in long: a split and doubled result times a big bet doesn't fit an int (3:2 on an odd bet rounds down)
+			long net = (long) results[i] * bets[i] / 2;
+			int delta = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, net));
+			boolean won = outcomes[i] == HeadlessRound.WIN;
+			if (delta != 0 || won) players[i].settle(delta, won); // one atomic update per seat
+			deltas[i] = delta;
+		}
+	}
+
+	private void playRound(PlayerStrategy[] strategies, int seats) {
+		if (seats < 1 || seats > MAX_SEATS) throw new IllegalArgumentException("a table has 1 to " + MAX_SEATS + " seats");
+		this.seats = seats;
+		for (int i = 0; i < seats; i++) {
+			hands[i][0].clear();
+			handCount[i] = 1;
+			stakes[i][0] = 1;
+			active[i] = 0;
+			split[i] = false;
+			insured[i] = false;
+			room[i] -= 2; // the bet itself
+		}
+		dealerHand.clear();
+		shoe.startRound(); // reshuffle if the cut card came out last round
+
+		// two passes round the table, the dealer last each time
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < seats; i++) hands[i][0].add(shoe.draw());
+			dealerHand.add(shoe.draw());
+		}
+
+		int dealerUp = Cards.rank(dealerHand.get(0));
+
+		// insurance, then the dealer checks for blackjack: if it's there nobody plays
+		if (rules.insurance() && dealerUp == 1) {
+			for (int i = 0; i < seats; i++) {
+				if (room[i] >= 1 && strategies[i].takeInsurance()) {
+					insured[i] = true;
+					room[i] -= 1;
+				}
+			}
+		}
+		if (rules.peek() && dealerHand.isBlackjack()) {
+			settle();
+			return;
+		}
+
+		// every seat plays its hands out before the dealer moves
+		int standing = 0;
+		for (int i = 0; i < seats; i++) {
+			if (rules.peek() && hands[i][0].isBlackjack()) continue; // natural, paid without playing
+			standing += playSeat(i, strategies[i], dealerUp);
+		}
+
+		// dealer draws to 17 once for everybody (nothing to play against if all seats busted)
+		if (standing > 0) {
+			while (dealerHand.value() < 17) {
+				dealerHand.add(shoe.draw());
+			}
+		}
+		settle();
+	}
+
+	// plays every hand of one seat (splits add hands behind the current one); returns hands not bust
+	private int playSeat(int i, PlayerStrategy strategy, int dealerUp) {
+		Hand[] seatHands = hands[i];
+		int standing = 0;
+		for (int h = 0; h < handCount[i]; h++) {
+			active[i] = h;
+			Hand hand = seatHands[h];
+			boolean splitAces = split[i] && Cards.points(hand.get(0)) == 1;
+			if (hand.size() == 1) hand.add(shoe.draw()); // second card of a split hand
+
+			// split: the second card starts a new hand behind this one, then both get a new card
+			while (hand.size() == 2 && handCount[i] < rules.maxHands() && room[i] >= 2 && !splitAces
+					&& Cards.points(hand.get(0)) == Cards.points(hand.get(1))
+					&& strategy.shouldSplit(Cards.points(hand.get(0)), dealerUp)) {
+				byte second = hand.get(1);
+				byte first = hand.get(0);
+				Hand added = seatHands[handCount[i]];
+				added.clear();
+				added.add(second);
+				stakes[i][handCount[i]] = 1;
+				handCount[i]++;
+				room[i] -= 2;
+				split[i] = true;
+
+				hand.clear();
+				hand.add(first);
+				splitAces = Cards.points(first) == 1;
+				hand.add(shoe.draw());
+			}
+
+			if (splitAces) {
+				// split aces get one card each
+			} else if (rules.doubleDown() && hand.size() == 2 && room[i] >= 2
+					&& (!split[i] || rules.doubleAfterSplit())
+					&& strategy.shouldDouble(hand.value(), hand.isSoft(), dealerUp)) {
+				stakes[i][h] = 2;
+				room[i] -= 2;
+				hand.add(shoe.draw());
+			} else {
+				while (!hand.isBust() && strategy.shouldHit(hand.value(), hand.isSoft(), dealerUp)) {
+					hand.add(shoe.draw());
+				}
+			}
+			if (!hand.isBust()) standing++;
+		}
+		return standing;
+	}
+
+	// every seat's result in one pass
+	private void settle() {
+		boolean dealerNatural = rules.peek() && dealerHand.isBlackjack();
+		int dealerVal = dealerHand.value();
+
+		for (int i = 0; i < seats; i++) {
+			int net = 0;
+			if (insured[i]) net += dealerNatural ? 2 : -1; // half a bet at 2:1
+
+			boolean natural = rules.peek() && !split[i] && hands[i][0].isBlackjack();
+			if (dealerNatural) {
+				if (!natural) net -= 2;
+			} else if (natural) {
+				net += rules.blackjack3to2() ? 3 : 2;
+			} else {
+				for (int h = 0; h < handCount[i]; h++) {
+					Hand hand = hands[i][h];
+					int stake = 2 * stakes[i][h];
+					if (hand.isBust()) {
+						net -= stake;
+					} else if (dealerVal > 21 || hand.value() > dealerVal) {
+						net += stake;
+					} else if (hand.value() < dealerVal) {
+						net -= stake;
+					}
+				}
+			}
+			results[i] = net;
+			outcomes[i] = net > 0 ? HeadlessRound.WIN : (net < 0 ? HeadlessRound.LOSS : HeadlessRound.PUSH);
+		}
+	}
+
+	public TableRules rules() {
+		return rules;
+	}
+
+	public int seats() {
+		return seats;
+	}
+
+	public int outcome(int seat) {
+		return outcomes[seat];
+	}
+
+	// the seat's net result in half bets (+2 = won the bet, +3 = 3:2 natural, -4 = lost a double)
+	public int result(int seat) {
+		return results[seat];
+	}
+
+	// the seat's first hand
+	public Hand hand(int seat) {
+		return hands[seat][0];
+	}
+
+	public Hand hand(int seat, int h) {
+		return hands[seat][h];
+	}
+
+	public int handCount(int seat) {
+		return handCount[seat];
+	}
+
+	// the hand the seat is deciding on right now
+	public int activeHand(int seat) {
+		return active[seat];
+	}
+
+	public boolean isDoubled(int seat, int h) {
+		return stakes[seat][h] == 2;
+	}
+
+	public boolean isInsured(int seat) {
+		return insured[seat];
+	}
+
+	public Hand dealerHand() {
+		return dealerHand;
+	}
+}
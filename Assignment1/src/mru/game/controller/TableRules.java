@@ -0,0 +1,104 @@
+package mru.game.controller;
+
+/*
+  notes:
+  - which of the casino rules a TableRound plays with (immutable, share it freely)
+  - CLASSIC is the original game: hit or stand only, every win pays even money, a two-card 21
+    is just 21 (so it pushes against a dealer 21)
+  - doubleDown: double the bet on a first two-card hand for exactly one more card
+    (doubleAfterSplit also allows it on hands made by a split)
+  - maxHands: a pair can be split until the seat has this many hands (1 = no splitting,
+    2 = split once, 4 = resplit up to four hands). split aces get one card each and can't be resplit
+  - insurance: when the dealer shows an ace, seats may bet half their bet that the dealer has
+    blackjack (pays 2:1)
+  - blackjack3to2: a natural (two-card 21, not after a split) pays 3:2 and beats a dealer 21
+  - with insurance or 3:2 on, the dealer checks the hole card for blackjack before anyone plays
+    (a dealer blackjack ends the round, naturals push)
+*/
+public class TableRules {
+
+	public static final TableRules CLASSIC = new TableRules(false, false, 1, false, false);
+	public static final TableRules STANDARD = new TableRules(true, true, 4, true, true); // a common casino table
+
+	private final boolean doubleDown;
+	private final boolean doubleAfterSplit;
+	private final int maxHands;
+	private final boolean insurance;
+	private final boolean blackjack3to2;
+
+	public TableRules(boolean doubleDown, boolean doubleAfterSplit, int maxHands, boolean insurance, boolean blackjack3to2) {
+		if (maxHands < 1 || maxHands > TableRound.MAX_HANDS) {
+			throw new IllegalArgumentException("max hands must be 1 to " + TableRound.MAX_HANDS);
+		}
+		this.doubleDown = doubleDown;
+		this.doubleAfterSplit = doubleDown && doubleAfterSplit;
+		this.maxHands = maxHands;
+		this.insurance = insurance;
+		this.blackjack3to2 = blackjack3to2;
+	}
+
+	/*
+	  reads a rule list like "double,das,resplit,insurance,3to2":
+	  double, das (double after split), split (one split), resplit (up to 4 hands), insurance, 3to2,
+	  or just "classic" / "all"
+	*/
+	public static TableRules parse(String s) {
+		s = s.trim().toLowerCase();
+		if (s.equals("classic") || s.equals("none") || s.length() == 0) return CLASSIC;
+		if (s.equals("all")) return STANDARD;
+
+		boolean dbl = false, das = false, ins = false, bj = false;
+		int hands = 1;
+		for (String r : s.split(",")) {
+			switch (r.trim()) {
+				case "double": dbl = true; break;
+				case "das": dbl = true; das = true; break;
+				case "split": hands = Math.max(hands, 2); break;
+				case "resplit": hands = TableRound.MAX_HANDS; break;
+				case "insurance": ins = true; break;
+				case "3to2": bj = true; break;
+				default: throw new IllegalArgumentException("unknown rule: " + r);
+			}
+		}
+		return new TableRules(dbl, das, hands, ins, bj);
+	}
+
+	public boolean doubleDown() {
+		return doubleDown;
+	}
+
+	public boolean doubleAfterSplit() {
+		return doubleAfterSplit;
+	}
+
+	public int maxHands() {
+		return maxHands;
+	}
+
+	public boolean insurance() {
+		return insurance;
+	}
+
+	public boolean blackjack3to2() {
+		return blackjack3to2;
+	}
+
+	// the dealer checks for blackjack up front (needed for insurance and for paying naturals)
+	public boolean peek() {
+		return insurance || blackjack3to2;
+	}
+
+	public boolean isClassic() {
+		return !doubleDown && maxHands == 1 && !insurance && !blackjack3to2;
+	}
+
+	public String toString() {
+		if (isClassic()) return "classic";
+		StringBuilder sb = new StringBuilder();
+		if (doubleDown) sb.append(doubleAfterSplit ? "das," : "double,");
+		if (maxHands > 1) sb.append(maxHands == 2 ? "split," : "resplit,");
+		if (insurance) sb.append("insurance,");
+		if (blackjack3to2) sb.append("3to2,");
+		return sb.substring(0, sb.length() - 1);
+	}
+}
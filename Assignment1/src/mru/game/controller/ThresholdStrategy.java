@@ -0,0 +1,22 @@
+package mru.game.controller;
+
+/*
+  simplest possible player strategy: keep hitting while the total is below a fixed number.
+  new ThresholdStrategy(17) plays exactly like the dealer does.
+*/
+public class ThresholdStrategy implements PlayerStrategy {
+
+	private final int standOn; // stand once the hand total reaches this number
+
+	public ThresholdStrategy(int standOn) {
+		this.standOn = standOn;
+	}
+
+	public boolean shouldHit(int playerTotal, boolean soft, int dealerUpRank) {
+		return playerTotal < standOn;
+	}
+
+	public String toString() {
+		return "hit below " + standOn;
+	}
+}
@@ -0,0 +1,124 @@
+package mru.game.controller;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import mru.game.model.Player;
+
+/*
+  notes:
+  - offline tournament: every player plays the same number of automated rounds (HeadlessRound + a strategy)
+  - players are split into ranges on a fork-join pool; every leaf range gets its own shoe and
+    random generator, so workers never share game state
+  - the Player objects are NOT touched while it runs: each worker writes the new balance/wins into
+    arrays (its own slots only), and apply() copies them back in one go at the end
+  - a leaf's seed comes from the tournament seed and the leaf's first player index,
+    and the leaf ranges only depend on the player count, so the same seed gives the same results
+    however the pool schedules the work
+  - a player who can't cover the bet anymore sits out the rest of the tournament
+*/
+public class Tournament {
+
+	private static final int LEAF_PLAYERS = 64; // players per task once a range is this small
+
+	private final int rounds;
+	private final int bet;
+	private final PlayerStrategy strategy; // shared, strategies are stateless
+	private final int decks;
+	private final double penetration;
+	private final long seed;
+
+	// results (slot i belongs to player i)
+	private int[] balances;
+	private int[] wins;
+	private SimulationResult result;
+
+	public Tournament(int rounds, int bet, PlayerStrategy strategy, int decks, double penetration, long seed) {
+		this.rounds = rounds;
+		this.bet = bet;
+		this.strategy = strategy;
+		this.decks = decks;
+		this.penetration = penetration;
+		this.seed = seed;
+	}
+
+	/*
+	  plays every player's rounds on the pool and returns the combined totals.
+	  players is read only (names aren't used, balances and wins are the starting values)
+	*/
+	public SimulationResult run(List<Player> players, ForkJoinPool pool) {
+		long start = System.nanoTime();
+		int n = players.size();
+		balances = new int[n];
+		wins = new int[n];
+		for (int i = 0; i < n; i++) {
+			long s = players.get(i).snapshot(); // balance and wins from the same update
+			balances[i] = Player.balanceOf(s);
+			wins[i] = Player.winsOf(s);
+		}
+
+		result = n == 0 ? new SimulationResult() : pool.invoke(new Range(0, n));
+		result.setElapsedNanos(System.nanoTime() - start);
+		return result;
+	}
+
+	/*
+	  bulk update: copies the final balances and wins onto the players (same list, same order as run),
+	  each player's pair in one atomic set. the caller holds every player's lease (see GameManager)
+	*/
+	public void apply(List<Player> players) {
+		for (int i = 0; i < players.size(); i++) {
+			players.get(i).set(balances[i], wins[i]);
+		}
+	}
+
+	// a range of players: split in half until it's small, then play it
+	private final class Range extends RecursiveTask<SimulationResult> {
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		Range(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected SimulationResult compute() {
+			if (to - from <= LEAF_PLAYERS) return play();
+
+			int mid = (from + to) >>> 1;
+			Range left = new Range(from, mid);
+			left.fork();
+			SimulationResult right = new Range(mid, to).compute();
+			return left.join().merge(right);
+		}
+
+		private SimulationResult play() {
+			// the seed depends only on where the range starts (see notes)
+			SplittableRandom rng = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (from + 1)));
+			HeadlessRound round = new HeadlessRound(new Shoe(decks, penetration, rng));
+			SimulationResult r = new SimulationResult();
+
+			for (int i = from; i < to; i++) {
+				int bal = balances[i];
+				int w = wins[i];
+				for (int k = 0; k < rounds && bal >= bet; k++) {
+					int outcome = round.play(strategy);
+					r.record(outcome);
+					if (outcome == HeadlessRound.WIN) {
+						bal += bet;
+						w++;
+					} else if (outcome == HeadlessRound.LOSS) {
+						bal -= bet;
+					}
+				}
+				balances[i] = bal;
+				wins[i] = w;
+			}
+			return r;
+		}
+	}
+}
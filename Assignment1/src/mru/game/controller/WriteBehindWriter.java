@@ -0,0 +1,176 @@
+package mru.game.controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+import mru.game.model.Player;
+
+/*
+  notes:
+  - write-behind in front of the PlayerJournal: after a round the game only calls markDirty(),
+    which puts the player in a set and returns, so no disk I/O happens on the round's thread
+  - a background thread writes the dirty players in batches, once there are batchSize of them
+    or the oldest one has waited maxDelayMs, whichever is first. that bounds how much a crash can lose
+  - a player changed several times before the batch goes out is written once, with the values
+    at write time (journal records are absolute values, so nothing in between is needed)
+  - stats (queue depth, batch sizes, flush latency) are kept for the metrics/monitoring side
+*/
+public class WriteBehindWriter {
+
+	private final PlayerJournal journal;
+	private final int batchSize;   // write as soon as this many players are dirty
+	private final long maxDelayMs; // ... or once the oldest dirty player has waited this long
+
+	private final Object lock = new Object(); // guards everything below
+	private LinkedHashSet<Player> dirty = new LinkedHashSet<Player>(); // players waiting to be written
+	private LinkedHashSet<Player> spare = new LinkedHashSet<Player>(); // swapped in while a batch is written
+	private long firstDirtyAt;   // when the oldest waiting player was marked (ms)
+	private long requestedFlush; // bumped by flush(), the writer doesn't wait for the timer then
+	private long doneFlush;
+	private boolean closing;
+	private Thread writer;
+
+	// stats
+	private long marks;          // markDirty() calls
+	private long coalesced;      // calls that found the player already waiting
+	private long batches;
+	private long written;        // records the journal wrote
+	private long lost;           // records the journal refused (closed or failing, it warns about them)
+	private int maxDepth;
+	private long lastFlushNanos;
+	private long maxFlushNanos;
+	private long totalFlushNanos;
+
+	public WriteBehindWriter(PlayerJournal journal, int batchSize, long maxDelayMs) {
+		this.journal = journal;
+		this.batchSize = Math.max(1, batchSize);
+		this.maxDelayMs = Math.max(1, maxDelayMs);
+	}
+
+	public void start() {
+		writer = new Thread(this::writeLoop, "write-behind");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	// queues the player's current values to be written (never blocks on disk)
+	public void markDirty(Player p) {
+		synchronized (lock) {
+			if (!closing) {
+				marks++;
+				if (dirty.isEmpty()) firstDirtyAt = System.currentTimeMillis();
+				if (!dirty.add(p)) coalesced++;
+				if (dirty.size() > maxDepth) maxDepth = dirty.size();
+				if (dirty.size() == 1 || dirty.size() >= batchSize) lock.notifyAll();
+				return;
+			}
+		}
+		journal.append(p); // too late for the background thread, write it directly (warns if the journal is closed too)
+	}
+
+	// writes everything marked so far and waits until it's on disk
+	public void flush() {
+		synchronized (lock) {
+			long ticket = ++requestedFlush;
+			lock.notifyAll();
+			while (doneFlush < ticket && writer != null && writer.isAlive()) {
+				waitOn(lock, 0);
+			}
+		}
+	}
+
+	// writes what's left and stops the background thread
+	public void close() {
+		synchronized (lock) {
+			closing = true;
+			lock.notifyAll();
+		}
+		if (writer != null) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	// number of players waiting to be written
+	public int queueDepth() {
+		synchronized (lock) {
+			return dirty.size();
+		}
+	}
+
+	public String stats() {
+		synchronized (lock) {
+			long avg = batches == 0 ? 0 : totalFlushNanos / batches;
+			return "write-behind: depth " + dirty.size() + " (max " + maxDepth + "), "
+					+ marks + " updates, " + coalesced + " coalesced, "
+					+ written + " records in " + batches + " batches" + (lost > 0 ? " (" + lost + " lost)" : "")
+					+ ", flush ms last/avg/max "
+					+ ms(lastFlushNanos) + "/" + ms(avg) + "/" + ms(maxFlushNanos);
+		}
+	}
+
+	private void writeLoop() {
+		ArrayList<Player> batch = new ArrayList<Player>();
+		while (true) {
+			long ticket;
+			synchronized (lock) {
+				// wait until: batch is full, the oldest entry is due, a flush was asked for, or we're closing
+				while (true) {
+					if (closing || requestedFlush > doneFlush || dirty.size() >= batchSize) break;
+					if (dirty.isEmpty()) {
+						waitOn(lock, 0);
+					} else {
+						long left = firstDirtyAt + maxDelayMs - System.currentTimeMillis();
+						if (left <= 0) break;
+						waitOn(lock, left);
+					}
+				}
+				if (closing && dirty.isEmpty()) {
+					doneFlush = requestedFlush;
+					lock.notifyAll();
+					return;
+				}
+
+				ticket = requestedFlush;
+				LinkedHashSet<Player> taken = dirty;
+				dirty = spare;
+				spare = taken;
+			}
+
+			// outside the lock: rounds keep marking players into the other set meanwhile
+			batch.clear();
+			batch.addAll(spare);
+			spare.clear();
+
+			long start = System.nanoTime();
+			boolean ok = journal.appendAll(batch); // one write + fsync for the whole batch
+			long took = System.nanoTime() - start;
+
+			synchronized (lock) {
+				batches++;
+				if (ok) written += batch.size();
+				else lost += batch.size();
+				lastFlushNanos = took;
+				totalFlushNanos += took;
+				if (took > maxFlushNanos) maxFlushNanos = took;
+				doneFlush = ticket;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	private static String ms(long nanos) {
+		return String.format("%.2f", nanos / 1e6);
+	}
+
+	private static void waitOn(Object o, long ms) {
+		try {
+			o.wait(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package mru.game.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+  notes:
+  - keeps players in an ArrayList (file order, for saving) plus a HashMap index
+  - the map key is the name case-folded the same way equalsIgnoreCase compares chars,
+    so lookups and inserts are O(1) instead of scanning the whole list
+  - also keeps a SortedLeaderboard up to date (every stored player reports its changes to it)
+  - not thread-safe (the console game only has one thread)
+*/
+public class IndexedPlayerRepository implements PlayerRepository {
+
+	private ArrayList<Player> players = new ArrayList<Player>(); // insertion order
+	private HashMap<String, Player> byName = new HashMap<String, Player>(); // folded name -> player
+	private SortedLeaderboard leaderboard = new SortedLeaderboard();
+
+	public Player findByName(String name) {
+		if (name == null) return null;
+		return byName.get(foldName(name));
+	}
+
+	public Player getOrCreate(String name, int startingBalance) {
+		String key = foldName(name);
+		Player p = byName.get(key);
+		if (p != null) {
+			return p;
+		}
+
+		Player np = new Player(name, startingBalance, 0);
+		players.add(np);
+		byName.put(key, np);
+		track(np);
+		return np;
+	}
+
+	public void add(Player p) {
+		players.add(p);
+		// the old linear search returned the first match, so a duplicate name doesn't replace it
+		byName.putIfAbsent(foldName(p.getName()), p);
+		track(p);
+	}
+
+	public List<Player> all() {
+		return players;
+	}
+
+	public int size() {
+		return players.size();
+	}
+
+	public void clear() {
+		for (int i = 0; i < players.size(); i++) {
+			players.get(i).setListener(null); // old players stop reporting to the leaderboard
+		}
+		players.clear();
+		byName.clear();
+		leaderboard.clear();
+	}
+
+	public SortedLeaderboard getLeaderboard() {
+		return leaderboard;
+	}
+
+	// adds the player to the leaderboard and makes it report future changes there
+	private void track(Player p) {
+		leaderboard.add(p);
+		p.setListener(leaderboard);
+	}
+
+	/*
+	  turns a name into its lookup key.
+	  equalsIgnoreCase treats two chars as equal when their upper case (or the lower case of that)
+	  matches, so we fold every char to lower(upper(c)) to get exactly the same matches
+	*/
+	public static String foldName(String name) {
+		char[] chars = null; // only copied if some char actually changes
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			char f = Character.toLowerCase(Character.toUpperCase(c));
+			if (f != c) {
+				if (chars == null) chars = name.toCharArray();
+				chars[i] = f;
+			}
+		}
+		return chars == null ? name : new String(chars);
+	}
+}
@@ -0,0 +1,26 @@
+package mru.game.model;
+
+import java.util.List;
+
+/*
+  the wins/balance ordering of a repository's players (read only).
+  SortedLeaderboard keeps one up to date for a single store; ShardedPlayerRepository
+  answers the same questions by merging its shards' boards
+*/
+public interface Leaderboard {
+
+	// every player tied for the most wins (what the (T) menu shows); empty if no players
+	List<Player> topWinners();
+
+	// the k players with the most wins, best first
+	List<Player> topByWins(int k);
+
+	// the k players with the highest balance, best first
+	List<Player> topByBalance(int k);
+
+	// 1 = most wins; players with the same number of wins share a rank
+	int rankOf(Player p);
+
+	// number of players on the board
+	int size();
+}
@@ -0,0 +1,361 @@
+package mru.game.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+  notes:
+  - binary player database: fixed-width records in a memory-mapped file, so opening it
+    doesn't read anything and only the players that are actually used become Player objects
+  - the name index is an open-addressing hash table in a second mapped file (off the java heap),
+    so it doesn't have to be rebuilt on every start either
+  - changes to a loaded player (balance / wins) are written straight back into its record
+  - the leaderboard needs every player, so it's only built (decoding everything) the first time it's asked for
+
+  data file (CasinoInfo.bin):
+    header: magic, version, record count, record capacity (4 ints)
+    record: [0] name length, [1..55] name (UTF-8), [56] balance, [60] wins   (64 bytes)
+    a name longer than 55 bytes is refused (never cut: two long names would end up as one player).
+    one mapping holds at most MAX_RECORDS records (a mapped buffer stops at 2GB)
+  index file (CasinoInfo.idx):
+    header: record count it was built for, slot count (2 ints)
+    slot:   name hash, record number + 1 (0 = empty)   (8 bytes)
+*/
+public class MappedPlayerRepository implements PlayerRepository, PlayerListener {
+
+	private static final int MAGIC = 0x43534E31; // "CSN1"
+	private static final int VERSION = 1;
+
+	private static final int HEADER = 16;
+	private static final int RECORD = 64;
+	public static final int NAME_MAX = 55; // longest name in bytes (UTF-8)
+	private static final int BAL_OFF = 56;
+	private static final int WINS_OFF = 60;
+
+	private static final int INDEX_HEADER = 8;
+	private static final int SLOT = 8;
+
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER) / RECORD; // ~33.5M players
+
+	private final File dataFile;
+	private final File indexFile;
+
+	private FileChannel dataChannel;
+	private FileChannel indexChannel;
+	private MappedByteBuffer data;
+	private MappedByteBuffer index;
+
+	private int count;        // records in use
+	private int capacity;     // records the data file has room for
+	private int indexSlots;   // slots in the hash index (power of two, at most half full)
+
+	private HashMap<Integer, Player> loaded = new HashMap<Integer, Player>(); // record -> decoded player
+	private HashMap<Player, Integer> recordOf = new HashMap<Player, Integer>(); // decoded player -> record
+	private SortedLeaderboard leaderboard; // null until someone asks for it
+
+	// opens the database at path (and path's .idx), creating an empty one if it doesn't exist
+	public MappedPlayerRepository(String path) throws IOException {
+		dataFile = new File(path);
+		indexFile = new File(indexPath(path));
+
+		boolean fresh = !dataFile.exists() || dataFile.length() < HEADER;
+		dataChannel = FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		if (fresh) {
+			capacity = INITIAL_CAPACITY;
+			mapData();
+			data.putInt(0, MAGIC);
+			data.putInt(4, VERSION);
+			data.putInt(8, 0);
+			data.putInt(12, capacity);
+		} else {
+			ByteBuffer head = ByteBuffer.allocate(HEADER);
+			dataChannel.read(head, 0);
+			if (head.getInt(0) != MAGIC || head.getInt(4) != VERSION) {
+				dataChannel.close();
+				throw new IOException(path + " is not a player database");
+			}
+			count = head.getInt(8);
+			capacity = head.getInt(12);
+			if (capacity < 0 || capacity > MAX_RECORDS || count < 0 || count > capacity) {
+				dataChannel.close();
+				throw new IOException(path + " has a bad header (capacity " + capacity + ", count " + count + ")");
+			}
+			mapData();
+		}
+
+		openIndex();
+	}
+
+	// the index file that goes with a database file
+	public static String indexPath(String path) {
+		return path.replaceAll("\\.bin$", "") + ".idx";
+	}
+
+	// true if the name fits in a record (at most NAME_MAX bytes of UTF-8)
+	public static boolean fits(String name) {
+		return name.getBytes(StandardCharsets.UTF_8).length <= NAME_MAX;
+	}
+
+	public synchronized Player findByName(String name) {
+		if (name == null || !fits(name)) return null; // a name that doesn't fit was never stored
+		int rec = lookup(IndexedPlayerRepository.foldName(name));
+		return rec < 0 ? null : load(rec);
+	}
+
+	// throws IllegalArgumentException for a name that doesn't fit, IllegalStateException if the file is full
+	public synchronized Player getOrCreate(String name, int startingBalance) {
+		checkFits(name);
+		int rec = lookup(IndexedPlayerRepository.foldName(name));
+		if (rec < 0) {
+			rec = append(name, startingBalance, 0);
+		}
+		return load(rec);
+	}
+
+	// adds a player unless the name is already stored (the first one wins, like the text file)
+	public synchronized void add(Player p) {
+		checkFits(p.getName());
+		if (lookup(IndexedPlayerRepository.foldName(p.getName())) >= 0) return;
+
+		long s = p.snapshot();
+		int rec = append(p.getName(), Player.balanceOf(s), Player.winsOf(s));
+		attach(rec, p);
+	}
+
+	// decodes every record (only needed for full dumps, e.g. writing the text file)
+	public synchronized List<Player> all() {
+		ArrayList<Player> out = new ArrayList<Player>(count);
+		for (int i = 0; i < count; i++) {
+			out.add(load(i));
+		}
+		return out;
+	}
+
+	public synchronized int size() {
+		return count;
+	}
+
+	public synchronized void clear() {
+		for (Player p : recordOf.keySet()) {
+			p.setListener(null);
+		}
+		loaded.clear();
+		recordOf.clear();
+		leaderboard = null;
+
+		count = 0;
+		data.putInt(8, 0);
+		for (int i = 0; i < indexSlots; i++) {
+			index.putLong(INDEX_HEADER + i * SLOT, 0L);
+		}
+		index.putInt(0, 0);
+	}
+
+	public synchronized Leaderboard getLeaderboard() {
+		if (leaderboard == null) {
+			SortedLeaderboard lb = new SortedLeaderboard();
+			for (int i = 0; i < count; i++) {
+				lb.add(load(i));
+			}
+			leaderboard = lb;
+		}
+		return leaderboard;
+	}
+
+	// write-back: a loaded player's new wins go straight into its record
+	public synchronized void winsChanged(Player p, int oldWins) {
+		Integer rec = recordOf.get(p);
+		if (rec == null) return;
+		data.putInt(offset(rec) + WINS_OFF, p.getWins());
+		if (leaderboard != null) leaderboard.winsChanged(p, oldWins);
+	}
+
+	public synchronized void balanceChanged(Player p, int oldBalance) {
+		Integer rec = recordOf.get(p);
+		if (rec == null) return;
+		data.putInt(offset(rec) + BAL_OFF, p.getBalance());
+		if (leaderboard != null) leaderboard.balanceChanged(p, oldBalance);
+	}
+
+	// forces all changes in both mapped files out to disk
+	public synchronized void flush() {
+		data.force();
+		index.force();
+	}
+
+	public synchronized void close() throws IOException {
+		flush();
+		dataChannel.close();
+		indexChannel.close();
+	}
+
+	// record lookup
+
+	// record number for a folded name, or -1
+	private int lookup(String key) {
+		int h = hash(key);
+		int mask = indexSlots - 1;
+		for (int s = h & mask; ; s = (s + 1) & mask) {
+			int pos = INDEX_HEADER + s * SLOT;
+			int ref = index.getInt(pos + 4);
+			if (ref == 0) return -1; // empty slot → not stored
+			if (index.getInt(pos) == h && IndexedPlayerRepository.foldName(readName(ref - 1)).equals(key)) {
+				return ref - 1;
+			}
+		}
+	}
+
+	private void indexInsert(int rec, String key) {
+		int h = hash(key);
+		int mask = indexSlots - 1;
+		int s = h & mask;
+		while (index.getInt(INDEX_HEADER + s * SLOT + 4) != 0) {
+			s = (s + 1) & mask;
+		}
+		index.putInt(INDEX_HEADER + s * SLOT, h);
+		index.putInt(INDEX_HEADER + s * SLOT + 4, rec + 1);
+	}
+
+	private static int hash(String key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	// records
+
+	private int append(String name, int balance, int wins) {
+		if (count == capacity) {
+			growData();
+		}
+
+		int rec = count;
+		int off = offset(rec);
+		byte[] b = name.getBytes(StandardCharsets.UTF_8);
+		data.put(off, (byte) b.length);
+		for (int i = 0; i < b.length; i++) {
+			data.put(off + 1 + i, b[i]);
+		}
+		data.putInt(off + BAL_OFF, balance);
+		data.putInt(off + WINS_OFF, wins);
+
+		count++;
+		data.putInt(8, count);
+
+		if ((long) count * 2 > indexSlots) {
+			rebuildIndex(indexSlots * 2);
+		} else {
+			indexInsert(rec, IndexedPlayerRepository.foldName(name));
+			index.putInt(0, count);
+		}
+		return rec;
+	}
+
+	// returns the Player for a record, decoding it the first time
+	private Player load(int rec) {
+		Player p = loaded.get(rec);
+		if (p == null) {
+			int off = offset(rec);
+			p = new Player(readName(rec), data.getInt(off + BAL_OFF), data.getInt(off + WINS_OFF));
+			attach(rec, p);
+		}
+		return p;
+	}
+
+	private void attach(int rec, Player p) {
+		loaded.put(rec, p);
+		recordOf.put(p, rec);
+		p.setListener(this);
+		if (leaderboard != null) leaderboard.add(p);
+	}
+
+	private String readName(int rec) {
+		int off = offset(rec);
+		int len = data.get(off) & 0xFF;
+		byte[] b = new byte[len];
+		for (int i = 0; i < len; i++) {
+			b[i] = data.get(off + 1 + i);
+		}
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	// worked out in long: rec < capacity <= MAX_RECORDS keeps it inside the mapping
+	private static int offset(int rec) {
+		return Math.toIntExact(HEADER + (long) rec * RECORD);
+	}
+
+	private static void checkFits(String name) {
+		if (!fits(name)) throw new IllegalArgumentException("name longer than " + NAME_MAX + " bytes: " + name);
+	}
+
+	// mapping
+
+	private void mapData() throws IOException {
+		data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) capacity * RECORD);
+	}
+
+	// maps the bigger file first and only then switches over, so a failure leaves everything as it was
+	private void growData() {
+		long next = Math.min(2L * capacity, MAX_RECORDS);
+		if (next <= capacity) {
+			throw new IllegalStateException("player database is full (" + capacity + " players, the most one file can map)");
+		}
+		try {
+			data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + next * RECORD);
+		} catch (IOException e) {
+			throw new IllegalStateException("can't grow player database: " + e.getMessage(), e);
+		}
+		capacity = (int) next;
+		data.putInt(12, capacity);
+	}
+
+	// maps the index file, rebuilding it if it's missing or doesn't match the data file
+	private void openIndex() throws IOException {
+		boolean usable = indexFile.exists() && indexFile.length() >= INDEX_HEADER;
+		indexChannel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		if (usable) {
+			ByteBuffer head = ByteBuffer.allocate(INDEX_HEADER);
+			indexChannel.read(head, 0);
+			indexSlots = head.getInt(4);
+			usable = head.getInt(0) == count && Integer.bitCount(indexSlots) == 1
+					&& indexFile.length() >= INDEX_HEADER + (long) indexSlots * SLOT;
+		}
+
+		if (usable) {
+			index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) indexSlots * SLOT);
+		} else {
+			rebuildIndex(Math.max(INITIAL_CAPACITY * 2, Integer.highestOneBit(Math.max(1, count)) * 4));
+		}
+	}
+
+	// recreates the index with the given number of slots from the names in the data file
+	private void rebuildIndex(int slots) {
+		try {
+			indexChannel.truncate(0);
+			index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) slots * SLOT);
+			indexSlots = slots;
+			for (int i = 0; i < slots; i++) {
+				index.putLong(INDEX_HEADER + i * SLOT, 0L);
+			}
+			for (int r = 0; r < count; r++) {
+				indexInsert(r, IndexedPlayerRepository.foldName(readName(r)));
+			}
+			index.putInt(0, count);
+			index.putInt(4, slots);
+		} catch (IOException e) {
+			throw new IllegalStateException("can't build player index: " + e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package mru.game.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+  notes:
+  - prefix and "did you mean" search over player names: a trie of the case-folded names
+    (same folding as IndexedPlayerRepository, so "ali" finds "Ali")
+  - nodes live in parallel int/char arrays instead of node objects (a million names is a few
+    million nodes, as objects that would be a lot of garbage-collector work)
+  - children of a node are a linked list kept sorted by char, so walking the trie gives names in order
+  - every node knows how many names are below it, so a page deep into the results skips whole
+    subtrees instead of walking them
+  - fuzzy search walks the trie with one row of the edit distance table per letter and stops
+    going down a branch as soon as every entry in the row is over the limit
+  - players are added one at a time (add), the index never has to be rebuilt
+  - methods are synchronized: server sessions add players while others search
+*/
+public class NameIndex {
+
+	private static final int ROOT = 0;
+
+	private char[] label = new char[1024];    // char on the edge into this node
+	private int[] firstChild = new int[1024]; // 0 = none (the root is never anyone's child)
+	private int[] nextSibling = new int[1024];
+	private int[] below = new int[1024];      // names ending at or under this node
+	private int[] value = new int[1024];      // players index + 1 if a name ends here, else 0
+	private int nodes = 1;                    // node 0 is the root
+
+	private ArrayList<Player> players = new ArrayList<Player>();
+
+	// adds a player (a second player with the same folded name is ignored, like findByName)
+	public synchronized void add(Player p) {
+		String key = IndexedPlayerRepository.foldName(p.getName());
+
+		int node = ROOT;
+		for (int i = 0; i < key.length(); i++) {
+			node = child(node, key.charAt(i), true);
+		}
+		if (value[node] != 0) return;
+
+		players.add(p);
+		value[node] = players.size();
+
+		// one more name under every node on the path
+		node = ROOT;
+		below[ROOT]++;
+		for (int i = 0; i < key.length(); i++) {
+			node = child(node, key.charAt(i), false);
+			below[node]++;
+		}
+	}
+
+	public synchronized int size() {
+		return players.size();
+	}
+
+	public synchronized void clear() {
+		players.clear();
+		nodes = 1;
+		firstChild[ROOT] = 0;
+		below[ROOT] = 0;
+		value[ROOT] = 0;
+	}
+
+	// how many names start with the prefix
+	public synchronized int countPrefix(String prefix) {
+		int node = find(IndexedPlayerRepository.foldName(prefix));
+		return node < 0 ? 0 : below[node];
+	}
+
+	/*
+	  names starting with prefix, in alphabetical (folded) order: results offset .. offset + limit - 1.
+	  an empty prefix pages through everyone
+	*/
+	public synchronized List<Player> prefix(String prefix, int offset, int limit) {
+		ArrayList<Player> out = new ArrayList<Player>(Math.max(0, Math.min(limit, 64)));
+		int node = find(IndexedPlayerRepository.foldName(prefix));
+		if (node < 0 || limit <= 0) return out;
+		collect(node, Math.max(0, offset), limit, out);
+		return out;
+	}
+
+	/*
+	  names within maxEdits insertions / deletions / substitutions of name (case-insensitive),
+	  closest first (ties in alphabetical order), at most limit of them
+	*/
+	public synchronized List<Player> fuzzy(String name, int maxEdits, int limit) {
+		char[] key = IndexedPlayerRepository.foldName(name).toCharArray();
+		int cols = key.length + 1;
+		int over = maxEdits + 1; // every distance above the limit is stored as this
+
+		// rows[d] = edit distances between key prefixes and the trie path at depth d
+		int[][] rows = new int[key.length + maxEdits + 1][cols];
+		for (int j = 0; j < cols; j++) rows[0][j] = Math.min(j, over);
+
+		ArrayList<int[]> hits = new ArrayList<int[]>(); // {distance, player index}
+		if (value[ROOT] != 0 && key.length <= maxEdits) hits.add(new int[] { key.length, value[ROOT] - 1 });
+		for (int c = rows.length > 1 ? firstChild[ROOT] : 0; c != 0; c = nextSibling[c]) {
+			walk(c, 1, key, rows, maxEdits, hits);
+		}
+
+		// stable sort keeps the alphabetical order inside each distance
+		hits.sort((x, y) -> Integer.compare(x[0], y[0]));
+		ArrayList<Player> out = new ArrayList<Player>(Math.min(limit, hits.size()));
+		for (int i = 0; i < hits.size() && out.size() < limit; i++) {
+			out.add(players.get(hits.get(i)[1]));
+		}
+		return out;
+	}
+
+	/*
+	  one row of the edit distance table per trie level. only the band of columns within
+	  maxEdits of the diagonal can stay under the limit, so only those are worked out
+	  (the cells just outside the band are set to "over" for the next row to read)
+	*/
+	private void walk(int node, int depth, char[] key, int[][] rows, int maxEdits, ArrayList<int[]> hits) {
+		int[] prev = rows[depth - 1];
+		int[] row = rows[depth];
+		char ch = label[node];
+		int over = maxEdits + 1;
+		int lo = Math.max(1, depth - maxEdits);
+		int hi = Math.min(key.length, depth + maxEdits);
+
+		row[0] = Math.min(depth, over);
+		if (lo > 1) row[lo - 1] = over;
+		int best = lo > 1 ? over : row[0];
+		for (int j = lo; j <= hi; j++) {
+			int v = prev[j - 1] + (key[j - 1] == ch ? 0 : 1);
+			if (row[j - 1] + 1 < v) v = row[j - 1] + 1;
+			if (prev[j] + 1 < v) v = prev[j] + 1;
+			if (v > over) v = over;
+			row[j] = v;
+			if (v < best) best = v;
+		}
+		if (hi < key.length) row[hi + 1] = over;
+
+		int dist = hi == key.length ? row[hi] : over;
+		if (value[node] != 0 && dist <= maxEdits) hits.add(new int[] { dist, value[node] - 1 });
+		if (best > maxEdits || depth + 1 >= rows.length) return; // nothing deeper can get back under the limit
+
+		for (int c = firstChild[node]; c != 0; c = nextSibling[c]) {
+			walk(c, depth + 1, key, rows, maxEdits, hits);
+		}
+	}
+
+	// in-order walk that skips whole subtrees while offset is bigger than them; returns what's left of offset
+	private int collect(int node, int offset, int limit, ArrayList<Player> out) {
+		if (value[node] != 0) {
+			if (offset > 0) offset--;
+			else out.add(players.get(value[node] - 1));
+		}
+		for (int c = firstChild[node]; c != 0 && out.size() < limit; c = nextSibling[c]) {
+			if (offset >= below[c]) {
+				offset -= below[c];
+				continue;
+			}
+			offset = collect(c, offset, limit, out);
+		}
+		return offset;
+	}
+
+	// node for the folded key, or -1
+	private int find(String key) {
+		int node = ROOT;
+		for (int i = 0; i < key.length() && node >= 0; i++) {
+			node = child(node, key.charAt(i), false);
+		}
+		return node;
+	}
+
+	// the child of node on ch (made, in sorted position, if create is set); -1 if missing
+	private int child(int node, char ch, boolean create) {
+		int prev = 0;
+		int c = firstChild[node];
+		while (c != 0 && label[c] < ch) {
+			prev = c;
+			c = nextSibling[c];
+		}
+		if (c != 0 && label[c] == ch) return c;
+		if (!create) return -1;
+
+		int n = newNode(ch);
+		nextSibling[n] = c;
+		if (prev == 0) firstChild[node] = n;
+		else nextSibling[prev] = n;
+		return n;
+	}
+
+	private int newNode(char ch) {
+		if (nodes == label.length) {
+			int cap = nodes * 2;
+			label = Arrays.copyOf(label, cap);
+			firstChild = Arrays.copyOf(firstChild, cap);
+			nextSibling = Arrays.copyOf(nextSibling, cap);
+			below = Arrays.copyOf(below, cap);
+			value = Arrays.copyOf(value, cap);
+		}
+		int n = nodes++;
+		label[n] = ch;
+		firstChild[n] = 0;
+		nextSibling[n] = 0;
+		below[n] = 0;
+		value[n] = 0;
+		return n;
+	}
+}
@@ -1,23 +1,32 @@
 package mru.game.model;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 	
 /**
  * this class represent each player record in the Database
  * a model class for each record in the txt file
  * player object keeps name, balance, and number of wins
  * gamemanager uses these to load/save data and update the wins/money
+ *
+ * balance and wins live together in one long (wins in the high half, balance in the low half)
+ * and every change is a compare-and-set on it, so sessions, the journal and tournaments
+ * changing the same player at once never lose an update, and a round's money and win
+ * land together (settle)
 */
 
 public class Player {
 
+	private static final AtomicLongFieldUpdater<Player> STATE = AtomicLongFieldUpdater.newUpdater(Player.class, "state");
+
 	private String name;
-	private int balance;
-	private int wins;
+	private volatile long state; // (wins << 32) | balance, only changed through STATE
+
+	private volatile PlayerListener listener; // told about wins/balance changes (null = nobody listening)
 
 	// constructor for new or loaded players
 	public Player(String name, int balance, int wins) {
 		this.name = name;
-		this.balance = balance;
-		this.wins = wins;
+		this.state = pack(balance, wins);
 	}
 
 	// getter for player name
@@ -27,12 +36,29 @@ public class Player {
 
 	// getter for balance (money)
 	public int getBalance() {
-		return balance;
+		return (int) state;
 	}
 
 	// getter for total wins
 	public int getWins() {
-		return wins;
+		return (int) (state >>> 32);
+	}
+
+	/*
+	  balance and wins read together in one read, so they always come from the same update
+	  (reading getBalance then getWins can mix two rounds if one settles in between).
+	  take them apart with balanceOf / winsOf
+	*/
+	public long snapshot() {
+		return state;
+	}
+
+	public static int balanceOf(long snapshot) {
+		return (int) snapshot;
+	}
+
+	public static int winsOf(long snapshot) {
+		return (int) (snapshot >>> 32);
 	}
 
 	// setter for player name
@@ -42,26 +68,88 @@ public class Player {
 
 	// setter for balance
 	public void setBalance(int balance) {
-		this.balance = balance;
+		long old;
+		do {
+			old = state;
+		} while (!STATE.compareAndSet(this, old, pack(balance, (int) (old >>> 32))));
+		balanceChanged((int) old);
 	}
 
 	// setter for wins
 	public void setWins(int wins) {
-		this.wins = wins;
+		long old;
+		do {
+			old = state;
+		} while (!STATE.compareAndSet(this, old, pack((int) old, wins)));
+		winsChanged((int) (old >>> 32));
+	}
+
+	// sets balance and wins together in one atomic step (bulk updates, like a tournament's results)
+	public void set(int balance, int wins) {
+		long old = STATE.getAndSet(this, pack(balance, wins));
+		balanceChanged((int) old);
+		winsChanged((int) (old >>> 32));
 	}
 
 	// used when player wins a round
 	public void addWin() {
-		this.wins++;
+		settle(0, true);
 	}
 
 	// used when changing balance (win/loss)
 	public void addToBalance(int amount) {
-		this.balance += amount;
+		settle(amount, false);
+	}
+
+	/*
+	  a round's result in one atomic step: balance changes by amount (never below 0)
+	  and wins goes up by one if won
+	*/
+	public void settle(int amount, boolean won) {
+		long old;
+		long next;
+		do {
+			old = state;
+			long balance = (long) (int) old + amount;
+			// make sure balance never goes below 0
+			if (balance < 0) balance = 0;
+			next = pack((int) Math.min(Integer.MAX_VALUE, balance), (int) (old >>> 32) + (won ? 1 : 0));
+		} while (!STATE.compareAndSet(this, old, next));
+
+		balanceChanged((int) old);
+		if (won) winsChanged((int) (old >>> 32));
+	}
+
+	/*
+	  optimistic update: sets the balance only if it is still expected (false = someone else
+	  changed it first, read it again and retry)
+	*/
+	public boolean compareAndSetBalance(int expected, int balance) {
+		long old;
+		do {
+			old = state;
+			if ((int) old != expected) return false;
+		} while (!STATE.compareAndSet(this, old, pack(balance, (int) (old >>> 32)))); // only wins moved, try again
+		balanceChanged(expected);
+		return true;
+	}
+
+	// sets who gets told about changes (the repository does this when the player is added)
+	public void setListener(PlayerListener listener) {
+		this.listener = listener;
+	}
+
+	private static long pack(int balance, int wins) {
+		return ((long) wins << 32) | (balance & 0xFFFFFFFFL);
+	}
+
+	private void winsChanged(int old) {
+		PlayerListener l = listener; // read once, setListener can run on another thread
+		if (l != null && old != getWins()) l.winsChanged(this, old);
+	}
 
-		// make sure balance never goes below 0
-		if (this.balance < 0) {
-			this.balance = 0;
-		}
+	private void balanceChanged(int old) {
+		PlayerListener l = listener;
+		if (l != null && old != getBalance()) l.balanceChanged(this, old);
 	}
 }
@@ -0,0 +1,14 @@
+package mru.game.model;
+
+/*
+  gets told when a player's wins or balance change,
+  so things like the leaderboard can stay up to date without rescanning every player
+*/
+public interface PlayerListener {
+
+	// called after the wins count changed (p.getWins() is already the new value)
+	void winsChanged(Player p, int oldWins);
+
+	// called after the balance changed (p.getBalance() is already the new value)
+	void balanceChanged(Player p, int oldBalance);
+}
@@ -0,0 +1,31 @@
+package mru.game.model;
+
+import java.util.List;
+
+/*
+  storage for all the players the casino knows about.
+  names are matched case-insensitively (same rule as String.equalsIgnoreCase),
+  so "Ali" and "ali" are the same player.
+*/
+public interface PlayerRepository {
+
+	// returns the player with this name, or null if there isn't one
+	Player findByName(String name);
+
+	// returns the existing player, or adds a new one with the given balance and 0 wins
+	Player getOrCreate(String name, int startingBalance);
+
+	// adds a loaded player (keeps file order; if the name is already taken the first one wins lookups)
+	void add(Player p);
+
+	// all players in insertion order (used for saving and for the top players screen)
+	List<Player> all();
+
+	int size();
+
+	// removes every player
+	void clear();
+
+	// wins/balance ordering of every stored player, kept up to date as players change
+	Leaderboard getLeaderboard();
+}
@@ -0,0 +1,145 @@
+package mru.game.model;
+
+/*
+  notes:
+  - counts how many players have each score (wins) in a randomized balanced tree (treap)
+  - every node also remembers how many players are in its subtree,
+    so "how many players have more than X" is one walk down the tree: O(log n)
+  - used by SortedLeaderboard for player ranks
+*/
+class RankTree {
+
+	private static class Node {
+		int key;      // the score
+		int count;    // players with exactly this score
+		int size;     // players in this whole subtree
+		int priority; // random heap priority that keeps the tree balanced
+		Node left, right;
+
+		Node(int key, int priority) {
+			this.key = key;
+			this.count = 1;
+			this.size = 1;
+			this.priority = priority;
+		}
+	}
+
+	private Node root;
+	private int seed = 0x2545F491; // xorshift state for node priorities
+
+	// adds one player with this score
+	void add(int key) {
+		root = insert(root, key);
+	}
+
+	// removes one player with this score (does nothing if no one has it)
+	void remove(int key) {
+		root = delete(root, key);
+	}
+
+	// total players in the tree
+	int size() {
+		return size(root);
+	}
+
+	// how many players have a score strictly greater than key
+	int countGreater(int key) {
+		int c = 0;
+		Node t = root;
+		while (t != null) {
+			if (key < t.key) {
+				c += t.count + size(t.right);
+				t = t.left;
+			} else if (key > t.key) {
+				t = t.right;
+			} else {
+				c += size(t.right);
+				break;
+			}
+		}
+		return c;
+	}
+
+	void clear() {
+		root = null;
+	}
+
+	private Node insert(Node t, int key) {
+		if (t == null) return new Node(key, nextPriority());
+
+		if (key == t.key) {
+			t.count++;
+		} else if (key < t.key) {
+			t.left = insert(t.left, key);
+			if (t.left.priority > t.priority) t = rotateRight(t);
+		} else {
+			t.right = insert(t.right, key);
+			if (t.right.priority > t.priority) t = rotateLeft(t);
+		}
+		update(t);
+		return t;
+	}
+
+	private Node delete(Node t, int key) {
+		if (t == null) return null;
+
+		if (key < t.key) {
+			t.left = delete(t.left, key);
+		} else if (key > t.key) {
+			t.right = delete(t.right, key);
+		} else if (t.count > 1) {
+			t.count--;
+		} else {
+			return merge(t.left, t.right); // last player with this score → drop the node
+		}
+		update(t);
+		return t;
+	}
+
+	// joins two trees where every key in a is smaller than every key in b
+	private Node merge(Node a, Node b) {
+		if (a == null) return b;
+		if (b == null) return a;
+		if (a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			update(a);
+			return a;
+		}
+		b.left = merge(a, b.left);
+		update(b);
+		return b;
+	}
+
+	private Node rotateRight(Node t) {
+		Node l = t.left;
+		t.left = l.right;
+		update(t);
+		l.right = t;
+		update(l);
+		return l;
+	}
+
+	private Node rotateLeft(Node t) {
+		Node r = t.right;
+		t.right = r.left;
+		update(t);
+		r.left = t;
+		update(r);
+		return r;
+	}
+
+	private static int size(Node t) {
+		return t == null ? 0 : t.size;
+	}
+
+	private static void update(Node t) {
+		t.size = t.count + size(t.left) + size(t.right);
+	}
+
+	private int nextPriority() {
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		return seed;
+	}
+}
@@ -0,0 +1,112 @@
+package mru.game.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+  notes:
+  - keeps players sorted by wins and by balance all the time, instead of scanning everyone
+    whenever the top players screen is opened
+  - updated through PlayerListener every time Player.addWin / addToBalance changes a value
+  - top K queries walk the highest buckets only: O(log n + K)
+  - rank queries use a RankTree: O(log n)
+  - methods are synchronized because players at different server tables report wins at the same time
+  - one per IndexedPlayerRepository / MappedPlayerRepository (ShardedPlayerRepository merges theirs)
+*/
+public class SortedLeaderboard implements Leaderboard, PlayerListener {
+
+	// score -> players with that score (LinkedHashSet keeps the order they reached it)
+	private TreeMap<Integer, LinkedHashSet<Player>> byWins = new TreeMap<Integer, LinkedHashSet<Player>>();
+	private TreeMap<Integer, LinkedHashSet<Player>> byBalance = new TreeMap<Integer, LinkedHashSet<Player>>();
+	private RankTree winRanks = new RankTree();
+
+	// starts tracking a player
+	public synchronized void add(Player p) {
+		long s = p.snapshot(); // one read: settle() can change p at any time, outside this lock
+		int w = Player.winsOf(s);
+		bucket(byWins, w).add(p);
+		bucket(byBalance, Player.balanceOf(s)).add(p);
+		winRanks.add(w);
+	}
+
+	public synchronized void clear() {
+		byWins.clear();
+		byBalance.clear();
+		winRanks.clear();
+	}
+
+	public synchronized void winsChanged(Player p, int oldWins) {
+		// players we don't track (e.g. left over from before a clear) are ignored
+		if (!unbucket(byWins, oldWins, p)) return;
+		int w = p.getWins(); // read once, so the bucket and the rank tree always get the same value
+		bucket(byWins, w).add(p);
+		winRanks.remove(oldWins);
+		winRanks.add(w);
+	}
+
+	public synchronized void balanceChanged(Player p, int oldBalance) {
+		if (!unbucket(byBalance, oldBalance, p)) return;
+		bucket(byBalance, p.getBalance()).add(p);
+	}
+
+	// every player tied for the most wins (what the (T) menu shows); empty if no players
+	public synchronized List<Player> topWinners() {
+		ArrayList<Player> out = new ArrayList<Player>();
+		if (byWins.isEmpty()) return out;
+		out.addAll(byWins.lastEntry().getValue());
+		return out;
+	}
+
+	// the k players with the most wins, best first
+	public synchronized List<Player> topByWins(int k) {
+		return top(byWins, k);
+	}
+
+	// the k players with the highest balance, best first
+	public synchronized List<Player> topByBalance(int k) {
+		return top(byBalance, k);
+	}
+
+	// 1 = most wins; players with the same number of wins share a rank
+	public synchronized int rankOf(Player p) {
+		return winRanks.countGreater(p.getWins()) + 1;
+	}
+
+	// number of players being tracked
+	public synchronized int size() {
+		return winRanks.size();
+	}
+
+	private static List<Player> top(TreeMap<Integer, LinkedHashSet<Player>> map, int k) {
+		ArrayList<Player> out = new ArrayList<Player>(Math.max(0, Math.min(k, 64)));
+		for (Map.Entry<Integer, LinkedHashSet<Player>> e : map.descendingMap().entrySet()) {
+			Iterator<Player> it = e.getValue().iterator();
+			while (it.hasNext()) {
+				if (out.size() >= k) return out;
+				out.add(it.next());
+			}
+		}
+		return out;
+	}
+
+	private static LinkedHashSet<Player> bucket(TreeMap<Integer, LinkedHashSet<Player>> map, int score) {
+		LinkedHashSet<Player> b = map.get(score);
+		if (b == null) {
+			b = new LinkedHashSet<Player>();
+			map.put(score, b);
+		}
+		return b;
+	}
+
+	// removes p from its old bucket (and drops the bucket if it's empty); false if it wasn't there
+	private static boolean unbucket(TreeMap<Integer, LinkedHashSet<Player>> map, int score, Player p) {
+		LinkedHashSet<Player> b = map.get(score);
+		if (b == null || !b.remove(p)) return false;
+		if (b.isEmpty()) map.remove(score);
+		return true;
+	}
+}
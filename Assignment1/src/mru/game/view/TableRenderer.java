@@ -0,0 +1,314 @@
+package mru.game.view;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import mru.game.controller.Cards;
+import mru.game.controller.Hand;
+import mru.game.model.Player;
+
+/*
+  notes:
+  - draws the blackjack board and the TOP PLAYERS / PLAYER INFO tables
+    (same text as the old println + "while (s.length() < n) s += \" \"" code)
+  - each frame is built in one reusable byte buffer and sent with a single write + flush
+  - header lines and padded card labels are encoded once up front, numbers are written digit
+    by digit, so drawing a frame doesn't allocate anything once the buffer is big enough
+  - the frame bypasses the PrintStream's own encoder, so the renderer is made for the stream's
+    charset: names are encoded in it (UTF-8 by hand, anything else through a reused CharsetEncoder).
+    the fixed text is all ASCII, so it's the same bytes in any charset that keeps ASCII as is
+    (every console and stream charset does; UTF-16 and the like are refused)
+  - one renderer per session, it's not thread-safe
+*/
+public class TableRenderer {
+
+	// what System.out encodes with (java 19+ says so in stdout.encoding, java 17 only sets
+	// sun.stdout.encoding for a real console and otherwise uses the default charset)
+	public static final Charset CONSOLE = consoleCharset();
+
+	private static final byte[] NL = bytes(System.lineSeparator());
+
+	// board
+	private static final byte[] BOARD_HEAD = bytes(lines(
+			"               -- BLACK JACK --",
+			"+======================+=====================+",
+			"|| PLAYER              | DEALER             ||",
+			"+======================+=====================+"));
+	private static final byte[] BOARD_ROW_END = bytes(" |" + System.lineSeparator()
+			+ "+----------------------+---------------------+" + System.lineSeparator());
+	private static final byte[] BAR_START = bytes("| ");
+	private static final byte[] BAR_MID = bytes("|| ");
+	private static final int LEFT_WIDTH = 20;
+	private static final int RIGHT_WIDTH = 19;
+	private static final byte[][] LEFT_LABELS = new byte[64][];  // card code -> padded label
+	private static final byte[][] RIGHT_LABELS = new byte[64][];
+	private static final byte[] LEFT_BLANK = bytes(pad("", LEFT_WIDTH));
+	private static final byte[] RIGHT_BLANK = bytes(pad("", RIGHT_WIDTH));
+
+	// top players
+	private static final byte[] TOP_HEAD = bytes(lines(
+			"              - TOP PLAYERS -",
+			"+====================+=================+",
+			"| NAME               | # WINS          |",
+			"+====================+=================+"));
+	private static final byte[] TOP_ROW_END = bytes("         |" + System.lineSeparator()
+			+ "+--------------------------------------+" + System.lineSeparator());
+
+	// player info
+	private static final byte[] INFO_HEAD = bytes(lines(
+			"                       - PLAYER INFO -",
+			"+====================+=================+=================+",
+			"| NAME               | # WINS          | BALANCE         |",
+			"+====================+=================+=================+"));
+	private static final byte[] INFO_MID = bytes("         | ");
+	private static final byte[] INFO_ROW_END = bytes("   |" + System.lineSeparator()
+			+ "+--------------------------------------------------------+" + System.lineSeparator());
+	private static final byte[] DOLLAR = bytes("  $");
+	private static final byte[] COL_SEP = bytes(" | ");
+
+	static {
+		for (int s = 0; s < 4; s++) {
+			for (int r = 1; r <= 13; r++) {
+				byte code = Cards.encode(r, s);
+				LEFT_LABELS[code] = bytes(pad(Cards.label(code), LEFT_WIDTH));
+				RIGHT_LABELS[code] = bytes(pad(Cards.label(code), RIGHT_WIDTH));
+			}
+		}
+	}
+
+	private final boolean utf8;
+	private final CharsetEncoder encoder; // names in other charsets (null for UTF-8)
+	private byte[] buf = new byte[4096];
+	private int len;
+	private long bytesWritten; // total sent by this renderer (for benchmarks / metrics)
+
+	// for System.out
+	public TableRenderer() {
+		this(CONSOLE);
+	}
+
+	// for a stream that encodes with the given charset
+	public TableRenderer(Charset charset) {
+		if (!keepsAscii(charset)) throw new IllegalArgumentException("can't draw tables in " + charset);
+		utf8 = charset.equals(StandardCharsets.UTF_8);
+		encoder = utf8 ? null : charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/*
+	  the blackjack table: player cards on the left, dealer cards on the right.
+	  hideDealerHole shows only the dealer's first card
+	*/
+	public void board(PrintStream out, Hand player, Hand dealer, boolean hideDealerHole) {
+		len = 0;
+		put(BOARD_HEAD);
+
+		int rows = Math.max(player.size(), dealer.size());
+		for (int i = 0; i < rows; i++) {
+			put(BAR_START);
+			put(i < player.size() ? LEFT_LABELS[player.get(i) & 63] : LEFT_BLANK);
+			put(BAR_MID);
+			if (i < dealer.size() && !(hideDealerHole && i >= 1)) {
+				put(RIGHT_LABELS[dealer.get(i) & 63]);
+			} else {
+				put(RIGHT_BLANK);
+			}
+			put(BOARD_ROW_END);
+		}
+		put(NL); // blank line after the table
+
+		send(out);
+	}
+
+	// the TOP PLAYERS table (name and wins)
+	public void topPlayers(PrintStream out, List<Player> players) {
+		len = 0;
+		put(TOP_HEAD);
+		for (int i = 0; i < players.size(); i++) {
+			Player p = players.get(i);
+			put(BAR_START);
+			putPadded(p.getName(), 18);
+			put(COL_SEP);
+			putInt(p.getWins());
+			fill(7 - digits(p.getWins()));
+			put(TOP_ROW_END);
+		}
+		send(out);
+	}
+
+	// the PLAYER INFO table for one player
+	public void playerInfo(PrintStream out, Player p) {
+		len = 0;
+		put(INFO_HEAD);
+		infoRow(p);
+		put(NL);
+		send(out);
+	}
+
+	// the PLAYER INFO table with one row per player (search results)
+	public void playerList(PrintStream out, List<Player> players) {
+		len = 0;
+		put(INFO_HEAD);
+		for (int i = 0; i < players.size(); i++) infoRow(players.get(i));
+		put(NL);
+		send(out);
+	}
+
+	private void infoRow(Player p) {
+		put(BAR_START);
+		putPadded(p.getName(), 18);
+		put(COL_SEP);
+		putInt(p.getWins());
+		fill(7 - digits(p.getWins()));
+		put(INFO_MID);
+		putInt(p.getBalance()); // balance column is "<balance>  $" padded to 13
+		put(DOLLAR);
+		fill(13 - digits(p.getBalance()) - DOLLAR.length);
+		put(INFO_ROW_END);
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	// one write and one flush for the whole frame
+	private void send(PrintStream out) {
+		out.write(buf, 0, len);
+		out.flush();
+		bytesWritten += len;
+	}
+
+	private void put(byte[] b) {
+		ensure(b.length);
+		System.arraycopy(b, 0, buf, len, b.length);
+		len += b.length;
+	}
+
+	// the string in the stream's charset, padded with spaces to width chars (like the old while loop, longer isn't cut)
+	private void putPadded(String s, int width) {
+		if (!utf8) {
+			ensure((int) Math.ceil(encoder.maxBytesPerChar()) * s.length() + width);
+			ByteBuffer dst = ByteBuffer.wrap(buf, len, buf.length - len);
+			encoder.reset();
+			encoder.encode(CharBuffer.wrap(s), dst, true);
+			encoder.flush(dst);
+			len = dst.position();
+			fill(width - s.length());
+			return;
+		}
+		ensure(s.length() * 3 + width);
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) {
+				buf[len++] = (byte) c;
+			} else if (c < 0x800) {
+				buf[len++] = (byte) (0xC0 | (c >> 6));
+				buf[len++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+					&& Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				buf[len++] = (byte) (0xF0 | (cp >> 18));
+				buf[len++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buf[len++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buf[len++] = (byte) (0x80 | (cp & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				buf[len++] = '?'; // broken surrogate pair, same as the UTF-8 encoder does
+			} else {
+				buf[len++] = (byte) (0xE0 | (c >> 12));
+				buf[len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buf[len++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		fill(width - s.length());
+	}
+
+	// the number in decimal, without making a String
+	private void putInt(int v) {
+		int n = digits(v);
+		ensure(n);
+		int end = len + n;
+		long x = v;
+		if (x < 0) {
+			buf[len] = '-';
+			x = -x;
+		}
+		int i = end;
+		do {
+			buf[--i] = (byte) ('0' + x % 10);
+			x /= 10;
+		} while (x > 0);
+		len = end;
+	}
+
+	private void fill(int spaces) {
+		if (spaces <= 0) return;
+		ensure(spaces);
+		for (int i = 0; i < spaces; i++) buf[len++] = ' ';
+	}
+
+	// characters in the decimal form of v (including a minus sign)
+	private static int digits(int v) {
+		long x = v;
+		int n = 1;
+		if (x < 0) {
+			n++;
+			x = -x;
+		}
+		while (x >= 10) {
+			x /= 10;
+			n++;
+		}
+		return n;
+	}
+
+	private void ensure(int more) {
+		if (len + more > buf.length) {
+			byte[] bigger = new byte[Math.max(buf.length * 2, len + more)];
+			System.arraycopy(buf, 0, bigger, 0, len);
+			buf = bigger;
+		}
+	}
+
+	private static String pad(String s, int width) {
+		StringBuilder sb = new StringBuilder(s);
+		while (sb.length() < width) sb.append(' ');
+		return sb.toString();
+	}
+
+	private static String lines(String... lines) {
+		StringBuilder sb = new StringBuilder();
+		for (String l : lines) sb.append(l).append(System.lineSeparator());
+		return sb.toString();
+	}
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	// true if every ASCII character is the same single byte in this charset
+	private static boolean keepsAscii(Charset cs) {
+		if (!cs.canEncode()) return false;
+		byte[] ascii = new byte[128];
+		for (int i = 0; i < ascii.length; i++) ascii[i] = (byte) i;
+		return Arrays.equals(ascii, new String(ascii, StandardCharsets.US_ASCII).getBytes(cs));
+	}
+
+	private static Charset consoleCharset() {
+		String name = System.getProperty("stdout.encoding");
+		if (name == null) name = System.getProperty("sun.stdout.encoding");
+		try {
+			if (name != null) return Charset.forName(name);
+		} catch (IllegalArgumentException e) {
+			// unknown name, fall through to the default like System.out does
+		}
+		return Charset.defaultCharset();
+	}
+}